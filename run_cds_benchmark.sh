@@ -0,0 +1,99 @@
+#!/bin/bash
+
+################################################################################
+# Benchmark de imagen Docker - Proyecto Platzi-Play
+# Compara la imagen anterior (JDK completo + fat jar) con la actual (JRE + capas + archivo CDS):
+# tamaño de la imagen y tiempo desde "docker run" hasta la primera respuesta 200 de GET /movies.
+# Requiere Docker y Postgres accesible desde el host (docker compose up -d postgres).
+################################################################################
+
+set -e  # Exit on error
+
+cd "$(dirname "$0")"  # Move to project root
+
+PORT="${PORT:-8096}"
+RUNS="${RUNS:-3}"
+BASE_URL="http://localhost:$PORT/platzi-play/api"
+DB_URL="${DB_URL:-jdbc:postgresql://localhost:5432/platzi_play_db}"
+DB_USER="${DB_USER:-camilo}"
+DB_PASSWORD="${DB_PASSWORD:-camilo.platzi}"
+BASELINE_IMAGE="platzi-play:baseline"
+CURRENT_IMAGE="platzi-play:cds"
+
+mkdir -p build
+
+# Dockerfile de referencia: el que se usaba antes (JDK completo, fat jar, sin CDS)
+cat > build/Dockerfile.baseline <<'DOCKERFILE'
+FROM gradle:8.14.3-jdk21 AS build
+COPY --chown=gradle:gradle . /app
+WORKDIR /app
+RUN gradle bootJar --no-daemon
+
+FROM eclipse-temurin:21-jdk
+WORKDIR /app
+COPY --from=build /app/build/libs/platzi-play.jar platzi_play.jar
+EXPOSE 8080
+ENTRYPOINT ["java", "-Dspring.profiles.active=prod", "-jar", "platzi_play.jar"]
+DOCKERFILE
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+    echo "🔨 Construyendo imagenes..."
+    docker build -q -f build/Dockerfile.baseline -t "$BASELINE_IMAGE" . > /dev/null
+    docker build -q -t "$CURRENT_IMAGE" . > /dev/null
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+size_mb() {
+    echo $(( $(docker image inspect --format '{{.Size}}' "$1") / 1024 / 1024 ))
+}
+
+# Arranca el contenedor y mide hasta la primera respuesta 200 de /movies
+measure() {
+    local name="$1"
+    local image="$2"
+
+    local start container first_response
+    start=$(now_ms)
+    container=$(docker run -d --rm --network host \
+        -e SERVER_PORT="$PORT" \
+        -e SPRING_DATASOURCE_URL="$DB_URL" \
+        -e SPRING_DATASOURCE_USERNAME="$DB_USER" \
+        -e SPRING_DATASOURCE_PASSWORD="$DB_PASSWORD" \
+        -e PLATZI_PLAY_CACHE_NOTIFY_ENABLED=false \
+        "$image")
+
+    until curl -sf -o /dev/null "$BASE_URL/movies"; do
+        if [ -z "$(docker ps -q -f id="$container")" ]; then
+            echo "❌ El contenedor $name termino antes de responder"
+            exit 1
+        fi
+        sleep 0.02
+    done
+    first_response=$(( $(now_ms) - start ))
+
+    docker stop -t 5 "$container" > /dev/null
+    printf "   %-10s primera respuesta: %6d ms\n" "$name" "$first_response"
+}
+
+echo "================================"
+echo "🐳 BENCHMARK IMAGEN JDK vs JRE + CDS"
+echo "================================"
+echo ""
+echo "📦 Tamaño de imagen"
+printf "   %-10s %5d MB\n" "baseline" "$(size_mb "$BASELINE_IMAGE")"
+printf "   %-10s %5d MB\n" "cds" "$(size_mb "$CURRENT_IMAGE")"
+
+for run in $(seq "$RUNS"); do
+    echo ""
+    echo "🚀 Corrida $run de $RUNS"
+    measure "baseline" "$BASELINE_IMAGE"
+    measure "cds" "$CURRENT_IMAGE"
+done
+
+echo ""
+echo "================================"
+echo "✨ Benchmark completado"
+echo "================================"
@@ -0,0 +1,85 @@
+#!/bin/bash
+
+################################################################################
+# Benchmark de arranque JVM vs imagen nativa - Proyecto Platzi-Play
+# Compara el tiempo hasta la primera respuesta de GET /movies y la memoria residente (RSS)
+# del bootJar en la JVM, del bootJar con AOT de Spring y del binario nativo de GraalVM.
+# Requiere Postgres corriendo (docker compose up -d postgres) y GraalVM 21 como JAVA_HOME.
+################################################################################
+
+set -e  # Exit on error
+
+cd "$(dirname "$0")"  # Move to project root
+
+PORT="${PORT:-8095}"
+RUNS="${RUNS:-3}"
+WARM_REQUESTS="${WARM_REQUESTS:-200}"
+BASE_URL="http://localhost:$PORT/platzi-play/api"
+export SPRING_DATASOURCE_URL="${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/platzi_play_db}"
+export SPRING_DATASOURCE_USERNAME="${SPRING_DATASOURCE_USERNAME:-camilo}"
+export SPRING_DATASOURCE_PASSWORD="${SPRING_DATASOURCE_PASSWORD:-camilo.platzi}"
+# El perfil y las propiedades que activan o desactivan beans se fijan en processAot: en jvm-aot y nativo
+# solo valen si se compilaron con ellos, por eso se pasan al build ademas de al arranque.
+# Con SKIP_BUILD=true los artefactos ya compilados deben venir de este mismo AOT_ARGS.
+AOT_ARGS="--spring.profiles.active=dev --platzi-play.snapshot.enabled=false"
+APP_ARGS="--server.port=$PORT --spring.jpa.show-sql=false $AOT_ARGS"
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+    echo "🔨 Compilando bootJar con AOT e imagen nativa..."
+    ./gradlew -Pnative -PaotArgs="$AOT_ARGS" bootJar nativeCompile --quiet
+fi
+
+JAR="$(ls build/libs/*.jar | grep -v plain | head -n 1)"
+NATIVE="build/native/nativeCompile/platzi-play"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Arranca el proceso, mide hasta la primera respuesta 200 de /movies y la RSS antes y despues de calentar
+measure() {
+    local name="$1"
+    shift
+
+    local start pid first_response rss_started rss_warm
+    start=$(now_ms)
+    "$@" $APP_ARGS > "build/benchmark-$name.log" 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "$BASE_URL/movies"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "❌ $name termino antes de responder, revisa build/benchmark-$name.log"
+            exit 1
+        fi
+        sleep 0.02
+    done
+    first_response=$(( $(now_ms) - start ))
+    rss_started=$(( $(ps -o rss= -p "$pid") / 1024 ))
+
+    for _ in $(seq "$WARM_REQUESTS"); do
+        curl -sf -o /dev/null "$BASE_URL/movies"
+    done
+    rss_warm=$(( $(ps -o rss= -p "$pid") / 1024 ))
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    printf "   %-10s primera respuesta: %6d ms   RSS al arrancar: %5d MB   RSS tras %d peticiones: %5d MB\n" \
+        "$name" "$first_response" "$rss_started" "$WARM_REQUESTS" "$rss_warm"
+}
+
+echo "================================"
+echo "⚡ BENCHMARK DE ARRANQUE JVM vs NATIVO"
+echo "================================"
+
+for run in $(seq "$RUNS"); do
+    echo ""
+    echo "🚀 Corrida $run de $RUNS"
+    measure "jvm" java -jar "$JAR"
+    measure "jvm-aot" java -Dspring.aot.enabled=true -jar "$JAR"
+    measure "native" "$NATIVE"
+done
+
+echo ""
+echo "================================"
+echo "✨ Benchmark completado (logs en build/benchmark-*.log)"
+echo "================================"
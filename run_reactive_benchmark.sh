@@ -0,0 +1,46 @@
+#!/bin/bash
+
+################################################################################
+# Benchmark MVC vs reactivo - Proyecto Platzi-Play
+# Compara GET /movies (MVC + JPA) con GET /reactive/movies (R2DBC) a alta concurrencia.
+# Requiere la aplicacion corriendo con el perfil reactive (ej. dev,reactive) y la herramienta "hey".
+################################################################################
+
+set -e  # Exit on error
+
+BASE_URL="${BASE_URL:-http://localhost:8090/platzi-play/api}"
+CONCURRENCY="${CONCURRENCY:-500}"
+REQUESTS="${REQUESTS:-50000}"
+MOVIE_ID="${MOVIE_ID:-1}"
+
+if ! command -v hey > /dev/null; then
+    echo "❌ No se encontro 'hey'. Instalalo con: go install github.com/rakyll/hey@latest"
+    exit 1
+fi
+
+run() {
+    local name="$1"
+    local url="$2"
+    local accept="$3"
+
+    echo ""
+    echo "🚀 $name"
+    echo "   $url (c=$CONCURRENCY, n=$REQUESTS)"
+    hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Accept: $accept" "$url" \
+        | grep -E "Requests/sec|Average|99%|Status code|\[[0-9]{3}\]"
+}
+
+echo "================================"
+echo "⚡ BENCHMARK MVC vs REACTIVO"
+echo "================================"
+
+run "MVC - listado" "$BASE_URL/movies" "application/json"
+run "Reactivo - listado" "$BASE_URL/reactive/movies" "application/json"
+run "Reactivo - listado en streaming" "$BASE_URL/reactive/movies" "application/x-ndjson"
+run "MVC - por id" "$BASE_URL/movies/$MOVIE_ID" "application/json"
+run "Reactivo - por id" "$BASE_URL/reactive/movies/$MOVIE_ID" "application/json"
+
+echo ""
+echo "================================"
+echo "✨ Benchmark completado"
+echo "================================"
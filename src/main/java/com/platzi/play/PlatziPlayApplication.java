@@ -2,8 +2,12 @@ package com.platzi.play;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(PlatziPlayRuntimeHints.class)
 public class PlatziPlayApplication {
 
 	public static void main(String[] args) {
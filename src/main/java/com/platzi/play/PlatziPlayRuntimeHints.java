@@ -0,0 +1,72 @@
+package com.platzi.play;
+
+import com.platzi.play.domain.dto.GenreStatsDto;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.dto.MovieChangeDto;
+import com.platzi.play.domain.dto.MovieChangeEventDto;
+import com.platzi.play.domain.dto.MovieChangesDto;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MoviePlaysDto;
+import com.platzi.play.domain.dto.MovieStatsDto;
+import com.platzi.play.domain.dto.RatingDto;
+import com.platzi.play.domain.dto.SuggestRequestDto;
+import com.platzi.play.domain.dto.SuggestionJobDto;
+import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.service.MovieService;
+import com.platzi.play.domain.service.PlatziPlayAiService;
+import com.platzi.play.persistence.entity.IdempotencyKeyEntity;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.MoviePlayCountEntity;
+import com.platzi.play.persistence.entity.MovieRatingEntity;
+import com.platzi.play.persistence.entity.MovieRecord;
+import com.platzi.play.persistence.entity.MovieTombstoneEntity;
+import com.platzi.play.persistence.mapper.GenreMapper;
+import com.platzi.play.persistence.mapper.StateMapper;
+import com.platzi.play.web.exception.Error;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.stream.Stream;
+
+/**
+ * Lo que la imagen nativa no puede descubrir sola al analizar el codigo: el proxy que langchain4j
+ * arma en tiempo de ejecucion para {@link PlatziPlayAiService}, la implementacion generada de los
+ * mappers de MapStruct, las entidades que Hibernate recorre por reflexion y los DTO que Jackson
+ * serializa sin que el metodo del controlador declare el tipo (ResponseEntity<?>, errores, snapshots).
+ */
+public class PlatziPlayRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String MOVIE_MAPPER_IMPL = "com.platzi.play.persistence.mapper.MovieMapperImpl";
+
+    private static final MemberCategory[] FULL_ACCESS = {
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.DECLARED_FIELDS
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // @AiService: proxy JDK sobre la interfaz; las anotaciones de los metodos se leen por reflexion
+        hints.proxies().registerJdkProxy(PlatziPlayAiService.class);
+        hints.reflection().registerType(PlatziPlayAiService.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        // Las herramientas @Tool se descubren y se invocan por reflexion
+        hints.reflection().registerType(MovieService.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.reflection().registerType(TypeReference.of(MOVIE_MAPPER_IMPL), FULL_ACCESS);
+        Stream.of(GenreMapper.class, StateMapper.class)
+                .forEach(mapper -> hints.reflection().registerType(mapper, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        Stream.of(MovieEntity.class, MovieTombstoneEntity.class, MovieRatingEntity.class, MoviePlayCountEntity.class,
+                        IdempotencyKeyEntity.class, MovieRecord.class)
+                .forEach(entity -> hints.reflection().registerType(entity, FULL_ACCESS));
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                MovieDto.class, UpdateMovieDto.class, MovieChangeDto.class, MovieChangesDto.class, MovieChangeEventDto.class,
+                MovieStatsDto.class, GenreStatsDto.class, MoviePlaysDto.class, RatingDto.class, IngestReportDto.class,
+                SuggestRequestDto.class, SuggestionJobDto.class, Error.class);
+
+        hints.resources().registerPattern("data.sql");
+    }
+}
@@ -0,0 +1,55 @@
+package com.platzi.play.cli;
+
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.service.MovieIngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Carga un archivo de peliculas desde la linea de comandos y termina la aplicacion:
+ * java -jar platzi-play.jar --platzi-play.ingest.file=peliculas.csv
+ */
+@Component
+@ConditionalOnProperty(name = "platzi-play.ingest.file")
+public class MovieIngestRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(MovieIngestRunner.class);
+
+    private final MovieIngestService movieIngestService;
+    private final ApplicationContext applicationContext;
+    private final Path file;
+
+    public MovieIngestRunner(MovieIngestService movieIngestService, ApplicationContext applicationContext,
+                             @Value("${platzi-play.ingest.file}") Path file) {
+        this.movieIngestService = movieIngestService;
+        this.applicationContext = applicationContext;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String name = this.file.getFileName().toString().toLowerCase();
+        IngestFormat format = name.endsWith(".ndjson") || name.endsWith(".jsonl") ? IngestFormat.NDJSON : IngestFormat.CSV;
+
+        IngestReportDto report;
+        try (Reader reader = Files.newBufferedReader(this.file, StandardCharsets.UTF_8)) {
+            report = this.movieIngestService.ingest(reader, format);
+        }
+
+        log.info("Archivo {} cargado: {} filas leidas, {} insertadas, {} rechazadas, {} omitidas, {} filas/s", this.file,
+                report.rowsRead(), report.rowsInserted(), report.rowsRejected(), report.rowsSkipped(), Math.round(report.rowsPerSecond()));
+        System.exit(SpringApplication.exit(this.applicationContext, () -> 0));
+    }
+}
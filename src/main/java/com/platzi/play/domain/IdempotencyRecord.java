@@ -0,0 +1,8 @@
+package com.platzi.play.domain;
+
+import java.time.Instant;
+
+// Respuesta guardada para una Idempotency-Key: la huella del pedido original y el cuerpo ya serializado,
+// o response null mientras el pedido que reservo la clave sigue en curso
+public record IdempotencyRecord(String key, String fingerprint, byte[] response, Instant expiresAt) {
+}
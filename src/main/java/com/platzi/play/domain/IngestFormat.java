@@ -0,0 +1,6 @@
+package com.platzi.play.domain;
+
+public enum IngestFormat {
+    CSV,
+    NDJSON
+}
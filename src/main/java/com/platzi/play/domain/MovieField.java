@@ -0,0 +1,46 @@
+package com.platzi.play.domain;
+
+import com.platzi.play.domain.exception.UnknownMovieFieldException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum MovieField {
+    TITLE("title"),
+    DURATION("duration"),
+    GENRE("genre"),
+    RELEASE_DATE("releaseDate"),
+    RATING("rating"),
+    STATE("state");
+
+    private final String jsonName;
+
+    MovieField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    // Convierte "title,rating" en el conjunto de campos pedidos, en el orden de MovieDto
+    public static Set<MovieField> parse(String fields) {
+        Set<MovieField> result = EnumSet.noneOf(MovieField.class);
+        if (fields == null) return result;
+
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+
+            result.add(fromJsonName(trimmed));
+        }
+        return result;
+    }
+
+    private static MovieField fromJsonName(String name) {
+        for (MovieField field : values()) {
+            if (field.jsonName.equals(name)) return field;
+        }
+        throw new UnknownMovieFieldException(name);
+    }
+}
@@ -0,0 +1,8 @@
+package com.platzi.play.domain;
+
+/**
+ * Reproducciones acumuladas en memoria para una pelicula desde el ultimo volcado a la base de datos.
+ */
+public record MoviePlayDelta(long movieId, long plays) {
+
+}
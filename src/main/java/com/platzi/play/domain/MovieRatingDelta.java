@@ -0,0 +1,11 @@
+package com.platzi.play.domain;
+
+/**
+ * Votos acumulados en memoria para una pelicula desde el ultimo volcado a la base de datos.
+ */
+public record MovieRatingDelta(long movieId, long sum, long count) {
+
+    public MovieRatingDelta plus(MovieRatingDelta other) {
+        return new MovieRatingDelta(this.movieId, this.sum + other.sum, this.count + other.count);
+    }
+}
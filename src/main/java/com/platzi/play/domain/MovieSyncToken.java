@@ -0,0 +1,44 @@
+package com.platzi.play.domain;
+
+import com.platzi.play.domain.exception.InvalidSyncTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Posicion de un cliente en el historial de cambios: ultima actualizacion y ultimo borrado ya entregados.
+ * Cada posicion es (instante, id) para no perder cambios que comparten el mismo instante.
+ */
+public record MovieSyncToken(Instant updatedAt, long updatedId, Instant deletedAt, long deletedId) {
+    public static final MovieSyncToken START = new MovieSyncToken(Instant.EPOCH, 0, Instant.EPOCH, 0);
+
+    public String encode() {
+        String raw = toMicros(updatedAt) + ":" + updatedId + ":" + toMicros(deletedAt) + ":" + deletedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static MovieSyncToken decode(String token) {
+        if (token == null || token.isBlank()) return START;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 4) throw new InvalidSyncTokenException();
+
+            return new MovieSyncToken(fromMicros(Long.parseLong(parts[0])), Long.parseLong(parts[1]),
+                    fromMicros(Long.parseLong(parts[2])), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSyncTokenException();
+        }
+    }
+
+    private static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
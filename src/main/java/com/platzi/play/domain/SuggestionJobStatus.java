@@ -0,0 +1,8 @@
+package com.platzi.play.domain;
+
+public enum SuggestionJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.platzi.play.domain;
+
+/**
+ * Origen de las sugerencias de peliculas.
+ * AUTO usa el modelo de IA y cae al recomendador local si el modelo tarda o falla.
+ */
+public enum SuggestionMode {
+    AI,
+    LOCAL,
+    AUTO
+}
@@ -0,0 +1,8 @@
+package com.platzi.play.domain.dto;
+
+public record GenreStatsDto(
+        long count,
+        Double averageRating
+        ) {
+
+}
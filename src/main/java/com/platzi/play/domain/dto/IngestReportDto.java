@@ -0,0 +1,12 @@
+package com.platzi.play.domain.dto;
+
+public record IngestReportDto(
+        long rowsRead,
+        long rowsInserted,
+        long rowsRejected,
+        long rowsSkipped,
+        long elapsedMillis,
+        double rowsPerSecond
+        ) {
+
+}
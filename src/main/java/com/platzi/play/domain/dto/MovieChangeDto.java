@@ -0,0 +1,15 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.event.MovieChangedEvent;
+
+import java.time.Instant;
+
+// movie es null cuando la operacion es DELETED
+public record MovieChangeDto(
+        long id,
+        MovieChangedEvent.Operation operation,
+        Instant changedAt,
+        MovieDto movie
+        ) {
+
+}
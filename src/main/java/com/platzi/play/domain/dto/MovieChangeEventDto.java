@@ -0,0 +1,15 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.event.MovieChangedEvent;
+
+/**
+ * Aviso de cambio enviado a los clientes. {@code version} es la hora de reloj (epoch en milisegundos)
+ * del nodo que hizo el cambio; es orientativa y no permite ordenar avisos de nodos distintos.
+ */
+public record MovieChangeEventDto(
+        long id,
+        MovieChangedEvent.Operation operation,
+        long version
+        ) {
+
+}
@@ -0,0 +1,11 @@
+package com.platzi.play.domain.dto;
+
+import java.util.List;
+
+public record MovieChangesDto(
+        List<MovieChangeDto> changes,
+        String nextToken,
+        boolean hasMore
+        ) {
+
+}
@@ -7,6 +7,7 @@ import java.time.LocalDate;
 
 public record MovieDto(
         @NotBlank(message = "El titulo no puede estar vacio.")
+        @Size(max = 150, message = "El titulo no puede tener mas de 150 caracteres.")
         String title,
         @Min(value = 1, message = "La duracion no puede ser menor a 1 minuto")
         @Max(value = 300, message = "La duracion no puede ser mayor a 300 minutos")
@@ -0,0 +1,9 @@
+package com.platzi.play.domain.dto;
+
+public record MoviePlaysDto(
+        long id,
+        String title,
+        long plays
+        ) {
+
+}
@@ -0,0 +1,14 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.Genre;
+
+import java.util.Map;
+
+public record MovieStatsDto(
+        long total,
+        Map<Genre, GenreStatsDto> genres,
+        Map<String, Long> durationDistribution,
+        Map<Integer, Long> releasesPerYear
+        ) {
+
+}
@@ -0,0 +1,14 @@
+package com.platzi.play.domain.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record RatingDto(
+        @NotNull(message = "La calificacion es obligatoria.")
+        @Min(value = 1, message = "La calificacion no puede ser menor que 1")
+        @Max(value = 5, message = "La calificacion no puede ser mayor que 5")
+        Integer score
+        ) {
+
+}
@@ -0,0 +1,17 @@
+package com.platzi.play.domain.dto;
+
+import com.platzi.play.domain.SuggestionJobStatus;
+
+import java.time.Instant;
+
+public record SuggestionJobDto(
+        String id,
+        SuggestionJobStatus status,
+        int priority,
+        String result,
+        String error,
+        Instant submittedAt,
+        Instant completedAt
+        ) {
+
+}
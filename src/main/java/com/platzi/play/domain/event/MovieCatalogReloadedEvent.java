@@ -0,0 +1,9 @@
+package com.platzi.play.domain.event;
+
+// Se publica cuando cambian muchas peliculas de una vez y conviene reconstruir en lugar de aplicar cambio por cambio
+public record MovieCatalogReloadedEvent(long changedRows, boolean remote) {
+
+    public MovieCatalogReloadedEvent(long changedRows) {
+        this(changedRows, false);
+    }
+}
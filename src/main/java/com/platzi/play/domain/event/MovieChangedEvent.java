@@ -0,0 +1,20 @@
+package com.platzi.play.domain.event;
+
+/**
+ * Cambio sobre una pelicula. Los eventos remotos llegan desde otro nodo y no se vuelven a propagar.
+ * {@code version} es solo la hora de reloj del nodo que publico el cambio: los relojes de los nodos
+ * no estan sincronizados, asi que no sirve para ordenar ni para descartar duplicados. Quien necesite
+ * el estado vigente debe volver a leer la pelicula.
+ */
+public record MovieChangedEvent(long movieId, Operation operation, long version, boolean remote) {
+
+    public MovieChangedEvent(long movieId, Operation operation) {
+        this(movieId, operation, System.currentTimeMillis(), false);
+    }
+
+    public enum Operation {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,11 @@
+package com.platzi.play.domain.event;
+
+import java.util.Map;
+
+// Nuevas clasificaciones promedio tras volcar los votos: un solo evento por lote, sin releer cada pelicula
+public record MovieRatingsChangedEvent(Map<Long, Double> ratings, boolean remote) {
+
+    public MovieRatingsChangedEvent(Map<Long, Double> ratings) {
+        this(ratings, false);
+    }
+}
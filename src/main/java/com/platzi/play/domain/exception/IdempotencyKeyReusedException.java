@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("La Idempotency-Key ya se uso con un pedido distinto.", null, false, false);
+    }
+}
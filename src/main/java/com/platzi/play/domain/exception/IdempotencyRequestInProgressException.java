@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class IdempotencyRequestInProgressException extends RuntimeException {
+    public IdempotencyRequestInProgressException() {
+        super("Hay un pedido con la misma Idempotency-Key en curso, intenta de nuevo en unos segundos.", null, false, false);
+    }
+}
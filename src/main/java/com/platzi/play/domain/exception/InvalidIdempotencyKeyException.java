@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException() {
+        super("La Idempotency-Key debe tener entre 1 y 255 caracteres.", null, false, false);
+    }
+}
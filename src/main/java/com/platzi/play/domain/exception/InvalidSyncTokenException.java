@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class InvalidSyncTokenException extends RuntimeException {
+    public InvalidSyncTokenException() {
+        super("El token de sincronizacion no es valido.", null, false, false);
+    }
+}
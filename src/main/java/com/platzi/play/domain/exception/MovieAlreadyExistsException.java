@@ -2,6 +2,7 @@ package com.platzi.play.domain.exception;
 
 public class MovieAlreadyExistsException extends RuntimeException {
     public MovieAlreadyExistsException(String movieTitle) {
-        super("La pelicula " + movieTitle + " ya existe.");
+        // Sin stack trace: es un error de negocio que se traduce a un 400
+        super("La pelicula " + movieTitle + " ya existe.", null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class MovieIngestException extends RuntimeException {
+    public MovieIngestException(String detail, Throwable cause) {
+        super("No se pudo cargar el archivo de peliculas: " + detail, cause);
+    }
+}
@@ -1,7 +1,12 @@
 package com.platzi.play.domain.exception;
 
 public class MovieNotFound extends RuntimeException {
+    public static final String MESSAGE = "Pelicula no encontrada.";
+
+    // Instancia compartida sin stack trace: el 404 es un resultado esperado, no un error del servidor
+    public static final MovieNotFound INSTANCE = new MovieNotFound();
+
     public MovieNotFound() {
-        super("Pelicula no encontrada.");
+        super(MESSAGE, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class MovieStreamFullException extends RuntimeException {
+    public MovieStreamFullException() {
+        super("El feed de cambios no admite mas suscriptores por ahora.", null, false, false);
+    }
+}
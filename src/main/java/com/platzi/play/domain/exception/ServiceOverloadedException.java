@@ -0,0 +1,9 @@
+package com.platzi.play.domain.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public static final String MESSAGE = "El servicio esta saturado, intenta de nuevo en unos segundos.";
+
+    public ServiceOverloadedException() {
+        super(MESSAGE, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class SuggestionJobNotFoundException extends RuntimeException {
+    public SuggestionJobNotFoundException() {
+        super("El trabajo de sugerencias no existe o ya expiro.", null, false, false);
+    }
+}
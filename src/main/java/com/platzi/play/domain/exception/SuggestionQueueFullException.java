@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class SuggestionQueueFullException extends RuntimeException {
+    public SuggestionQueueFullException() {
+        super("La cola de sugerencias esta llena, intenta de nuevo mas tarde.", null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.platzi.play.domain.exception;
+
+public class UnknownMovieFieldException extends RuntimeException {
+    public UnknownMovieFieldException(String field) {
+        super("El campo " + field + " no existe en una pelicula.", null, false, false);
+    }
+}
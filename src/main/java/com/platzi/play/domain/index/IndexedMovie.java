@@ -0,0 +1,7 @@
+package com.platzi.play.domain.index;
+
+import com.platzi.play.domain.dto.MovieDto;
+
+public record IndexedMovie(long id, MovieDto movie) {
+
+}
@@ -0,0 +1,162 @@
+package com.platzi.play.domain.index;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copia en memoria de las peliculas disponibles. Se carga completa al iniciar (o cuando se pide
+ * una recarga) y despues solo se vuelve a leer la pelicula que cambio. Cada diferencia se entrega
+ * a los {@link MovieIndexListener} para que mantengan sus propias estructuras sin recorrer el catalogo.
+ * Si hay un snapshot en disco se arranca con el y la primera carga desde la base queda como reconciliacion.
+ */
+@Component
+public class MovieCatalogIndex {
+    private static final Logger log = LoggerFactory.getLogger(MovieCatalogIndex.class);
+
+    private final MovieRepository movieRepository;
+    private final ObjectProvider<MovieIndexListener> listeners;
+    // Una recarga arma un mapa nuevo y lo reemplaza de una vez: los lectores nunca ven el indice a medio llenar
+    private volatile Map<Long, IndexedMovie> movies = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean ready;
+    private volatile boolean servingSnapshot;
+
+    public MovieCatalogIndex(MovieRepository movieRepository, ObjectProvider<MovieIndexListener> listeners) {
+        this.movieRepository = movieRepository;
+        this.listeners = listeners;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Con snapshot cargado la base se consulta en segundo plano (MovieCatalogSnapshotter)
+        if (this.servingSnapshot) return;
+
+        try {
+            this.rebuild();
+        } catch (RuntimeException e) {
+            // La aplicacion arranca igual; el indice se construye en la proxima recarga
+            log.warn("No se pudo construir el indice del catalogo al iniciar", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, MovieDto> available = this.movieRepository.getAllById();
+
+        Map<Long, IndexedMovie> rebuilt = new ConcurrentHashMap<>(Math.max(16, available.size() * 2));
+        available.forEach((id, movie) -> rebuilt.put(id, new IndexedMovie(id, movie)));
+        this.movies = rebuilt;
+        this.ready = true;
+        this.servingSnapshot = false;
+        this.version.incrementAndGet();
+
+        this.notifyRebuilt();
+        log.info("Indice del catalogo construido con {} peliculas en {} ms", this.movies.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Llena el indice con un snapshot guardado, solo si todavia no se cargo desde la base.
+     * @return true si el snapshot se uso
+     */
+    public synchronized boolean warmUp(Collection<IndexedMovie> snapshot) {
+        if (this.ready) return false;
+
+        Map<Long, IndexedMovie> loaded = new ConcurrentHashMap<>(Math.max(16, snapshot.size() * 2));
+        snapshot.forEach(movie -> loaded.put(movie.id(), movie));
+        this.movies = loaded;
+        this.ready = true;
+        this.servingSnapshot = true;
+        this.version.incrementAndGet();
+
+        this.notifyRebuilt();
+        return true;
+    }
+
+    /**
+     * Despues del commit, para leer la pelicula tal como quedo confirmada. La lectura se hace con el lock
+     * tomado: si dos eventos del mismo id se cruzan, el que aplica ultimo es tambien el que leyo ultimo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        if (!this.ready) return;
+
+        Optional<MovieDto> current = event.operation() == MovieChangedEvent.Operation.DELETED
+                ? Optional.empty()
+                : this.movieRepository.findAvailableById(event.movieId());
+        this.apply(event.movieId(), current.map(movie -> new IndexedMovie(event.movieId(), movie)).orElse(null));
+    }
+
+    // Las clasificaciones ya vienen en el evento: se reemplazan en memoria sin volver a la base
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRatingsChanged(MovieRatingsChangedEvent event) {
+        if (!this.ready) return;
+
+        event.ratings().forEach((id, rating) -> {
+            IndexedMovie previous = this.movies.get(id);
+            if (previous == null) return;
+
+            MovieDto movie = previous.movie();
+            this.apply(id, new IndexedMovie(id, new MovieDto(movie.title(), movie.duration(), movie.genre(),
+                    movie.releaseDate(), rating, movie.state())));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(MovieCatalogReloadedEvent event) {
+        this.rebuild();
+    }
+
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    // true mientras el contenido venga del snapshot y no se haya podido reconciliar con la base
+    public boolean isServingSnapshot() {
+        return this.servingSnapshot;
+    }
+
+    // Avanza con cada cambio del indice; sirve para saber si hace falta escribir otro snapshot
+    public long version() {
+        return this.version.get();
+    }
+
+    public Optional<IndexedMovie> get(long id) {
+        return Optional.ofNullable(this.movies.get(id));
+    }
+
+    public List<IndexedMovie> getAll() {
+        return List.copyOf(this.movies.values());
+    }
+
+    private synchronized void apply(long id, IndexedMovie current) {
+        IndexedMovie previous = current == null ? this.movies.remove(id) : this.movies.put(id, current);
+        if (previous == null && current == null) return;
+
+        this.version.incrementAndGet();
+        this.listeners.orderedStream().forEach(listener -> listener.onMovieIndexed(previous, current));
+    }
+
+    private void notifyRebuilt() {
+        Collection<IndexedMovie> snapshot = Collections.unmodifiableCollection(new ArrayList<>(this.movies.values()));
+        this.listeners.orderedStream().forEach(listener -> listener.onIndexRebuilt(snapshot));
+    }
+}
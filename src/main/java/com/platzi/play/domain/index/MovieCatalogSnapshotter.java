@@ -0,0 +1,88 @@
+package com.platzi.play.domain.index;
+
+import com.platzi.play.domain.repository.MovieSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Arranque en caliente del indice: antes de aceptar trafico se carga el ultimo snapshot del catalogo
+ * y la lectura completa desde la base se hace despues en segundo plano, reintentando mientras no responda.
+ * Cada cierto tiempo, y al apagar, se vuelve a escribir el snapshot si el indice cambio.
+ */
+@Component
+@ConditionalOnProperty(prefix = "platzi-play.snapshot", name = "enabled", havingValue = "true")
+public class MovieCatalogSnapshotter {
+    private static final Logger log = LoggerFactory.getLogger(MovieCatalogSnapshotter.class);
+
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final MovieSnapshotRepository movieSnapshotRepository;
+    private long writtenVersion = -1;
+
+    public MovieCatalogSnapshotter(MovieCatalogIndex movieCatalogIndex, MovieSnapshotRepository movieSnapshotRepository) {
+        this.movieCatalogIndex = movieCatalogIndex;
+        this.movieSnapshotRepository = movieSnapshotRepository;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public synchronized void loadSnapshot() {
+        long start = System.nanoTime();
+        try {
+            this.movieSnapshotRepository.load().ifPresent(movies -> {
+                if (this.movieCatalogIndex.warmUp(movies)) {
+                    // Lo que se acaba de leer ya esta en disco, no hace falta reescribirlo
+                    this.writtenVersion = this.movieCatalogIndex.version();
+                    log.info("Indice del catalogo cargado desde el snapshot con {} peliculas en {} ms",
+                            movies.size(), (System.nanoTime() - start) / 1_000_000);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar el snapshot del catalogo, se espera a la base", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (this.movieCatalogIndex.isServingSnapshot()) {
+            Thread.ofVirtual().name("movie-catalog-reconcile").start(this::reconcile);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.snapshot.reconcile-retry:30s}", initialDelayString = "${platzi-play.snapshot.reconcile-retry:30s}")
+    public synchronized void reconcile() {
+        if (!this.movieCatalogIndex.isServingSnapshot()) return;
+
+        try {
+            this.movieCatalogIndex.rebuild();
+        } catch (RuntimeException e) {
+            log.warn("La base no responde, se siguen sirviendo las peliculas del snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.snapshot.interval:5m}", initialDelayString = "${platzi-play.snapshot.interval:5m}")
+    public synchronized void writeSnapshot() {
+        if (!this.movieCatalogIndex.isReady()) return;
+
+        // La version se lee antes de copiar: un cambio que entre en medio solo provoca otra escritura
+        long version = this.movieCatalogIndex.version();
+        if (version == this.writtenVersion) return;
+
+        try {
+            this.movieSnapshotRepository.save(this.movieCatalogIndex.getAll());
+            this.writtenVersion = version;
+        } catch (RuntimeException e) {
+            log.warn("No se pudo escribir el snapshot del catalogo", e);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        this.writeSnapshot();
+    }
+}
@@ -0,0 +1,18 @@
+package com.platzi.play.domain.index;
+
+import java.util.Collection;
+
+/**
+ * Estructura en memoria que se mantiene a partir de {@link MovieCatalogIndex}.
+ * Los metodos se llaman de a uno, nunca en paralelo, siempre desde el indice.
+ */
+public interface MovieIndexListener {
+
+    void onIndexRebuilt(Collection<IndexedMovie> movies);
+
+    /**
+     * @param previous la pelicula antes del cambio, o null si no estaba disponible
+     * @param current  la pelicula despues del cambio, o null si dejo de estar disponible
+     */
+    void onMovieIndexed(IndexedMovie previous, IndexedMovie current);
+}
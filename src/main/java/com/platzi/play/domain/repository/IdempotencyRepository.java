@@ -0,0 +1,20 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.IdempotencyRecord;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRepository {
+    /**
+     * Reserva la clave antes de ejecutar el pedido. Una reserva vencida (nodo caido a mitad) se puede tomar.
+     * @return true si este nodo quedo a cargo de la clave
+     */
+    boolean claim(String key, String fingerprint, Instant now, Instant claimExpiresAt);
+
+    // Un registro con response null es una reserva de un pedido que todavia esta en curso
+    Optional<IdempotencyRecord> find(String key, Instant now);
+    void complete(IdempotencyRecord record);
+    void release(String key);
+    int deleteExpired(Instant now);
+}
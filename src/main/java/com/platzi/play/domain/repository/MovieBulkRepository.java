@@ -0,0 +1,10 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+
+import java.io.Reader;
+
+public interface MovieBulkRepository {
+    IngestReportDto ingest(Reader reader, IngestFormat format);
+}
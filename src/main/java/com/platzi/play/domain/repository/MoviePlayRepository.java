@@ -0,0 +1,11 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.MoviePlayDelta;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface MoviePlayRepository {
+    Map<Long, Long> getPlayCounts();
+    void addPlays(Collection<MoviePlayDelta> deltas);
+}
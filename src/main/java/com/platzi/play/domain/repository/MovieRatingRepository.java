@@ -0,0 +1,9 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.MovieRatingDelta;
+
+import java.util.Collection;
+
+public interface MovieRatingRepository {
+    void addRatings(Collection<MovieRatingDelta> deltas);
+}
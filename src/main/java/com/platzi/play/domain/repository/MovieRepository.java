@@ -1,14 +1,24 @@
 package com.platzi.play.domain.repository;
 
+import com.platzi.play.domain.MovieField;
+import com.platzi.play.domain.MovieSyncToken;
+import com.platzi.play.domain.dto.MovieChangesDto;
 import com.platzi.play.domain.dto.MovieDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface MovieRepository {
     List<MovieDto> getAll();
+    List<Map<String, Object>> getAll(Set<MovieField> fields);
     MovieDto getById(long id);
+    Map<Long, MovieDto> getAllById();
+    Optional<MovieDto> findAvailableById(long id);
     MovieDto save(MovieDto movieDto);
     MovieDto update(long id, UpdateMovieDto updateMovieDto);
     void delete(long id);
+    MovieChangesDto getChangesSince(MovieSyncToken token, int limit);
 }
@@ -0,0 +1,12 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.index.IndexedMovie;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MovieSnapshotRepository {
+    Optional<List<IndexedMovie>> load();
+    void save(Collection<IndexedMovie> movies);
+}
@@ -0,0 +1,10 @@
+package com.platzi.play.domain.repository;
+
+import com.platzi.play.domain.dto.MovieDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveMovieRepository {
+    Flux<MovieDto> getAll();
+    Mono<MovieDto> getById(long id);
+}
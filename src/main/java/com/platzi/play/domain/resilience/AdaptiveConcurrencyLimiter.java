@@ -0,0 +1,85 @@
+package com.platzi.play.domain.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de peticiones simultaneas que se ajusta con la latencia observada (estilo gradiente).
+ * Se compara cada muestra con una media de largo plazo: mientras la latencia no pase de
+ * tolerance veces esa media y el limite se este usando, crece en raiz del limite; si la pasa,
+ * se reduce en la misma proporcion. Una falla lo recorta de inmediato.
+ * Las peticiones de baja prioridad solo pueden ocupar la parte no reservada del limite.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+    private final double reservedFraction;
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, int longWindow, double reservedFraction) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = Math.max(1, longWindow);
+        this.reservedFraction = reservedFraction;
+    }
+
+    /**
+     * @return true si la peticion puede pasar; en ese caso hay que llamar a {@link #release} al terminar
+     */
+    public boolean tryAcquire(boolean highPriority) {
+        int allowed = (int) this.limit;
+        if (!highPriority) {
+            allowed = Math.max(1, (int) (allowed * (1 - this.reservedFraction)));
+        }
+
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= allowed) return false;
+            if (this.inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = this.inFlight.getAndDecrement();
+        this.onSample(latencyNanos, failed, inFlightBefore);
+    }
+
+    public int getLimit() {
+        return (int) this.limit;
+    }
+
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean failed, int inFlightBefore) {
+        double current = this.limit;
+        if (failed) {
+            this.limit = Math.max(this.minLimit, current * BACKOFF_RATIO);
+            return;
+        }
+
+        long sample = Math.max(1, latencyNanos);
+        this.longRttNanos = this.longRttNanos == 0 ? sample : this.longRttNanos + (sample - this.longRttNanos) / this.longWindow;
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, this.tolerance * this.longRttNanos / sample));
+        // Si el trafico no llena ni la mitad del limite la latencia no dice nada sobre la capacidad; no se sube
+        double headroom = inFlightBefore * 2 >= current ? Math.sqrt(current) : 0;
+        double target = current * gradient + headroom;
+
+        double next = current * (1 - this.smoothing) + target * this.smoothing;
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, next));
+    }
+}
@@ -0,0 +1,26 @@
+package com.platzi.play.domain.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "platzi-play.ai")
+public record AiResilienceProperties(
+        @DefaultValue Timeouts timeouts,
+        @DefaultValue Hedge hedge,
+        @DefaultValue Breaker breaker
+) {
+
+    public record Timeouts(@DefaultValue("2s") Duration greeting, @DefaultValue("8s") Duration suggestion) {
+    }
+
+    // El segundo intento sale cuando el primero supera el p95 observado (nunca antes de minDelay)
+    public record Hedge(@DefaultValue("false") boolean enabled, @DefaultValue("0.95") double percentile,
+                        @DefaultValue("1s") Duration minDelay, @DefaultValue("20") int minSamples) {
+    }
+
+    public record Breaker(@DefaultValue("20") int windowSize, @DefaultValue("10") int minimumCalls,
+                          @DefaultValue("0.5") double failureRateThreshold, @DefaultValue("30s") Duration openDuration) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.platzi.play.domain.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker por conteo: mira el resultado de las ultimas llamadas y se abre cuando la
+ * proporcion de fallas supera el umbral. Abierto rechaza todo; pasado el tiempo de espera deja
+ * pasar una sola llamada de prueba que decide si vuelve a cerrarse o a abrirse.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (this.state == State.OPEN && this.nanoClock.getAsLong() - this.openedAt >= this.openNanos) {
+            this.state = State.HALF_OPEN;
+            this.trialInFlight = false;
+        }
+
+        return switch (this.state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (this.trialInFlight) yield false;
+                this.trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        switch (this.state) {
+            case HALF_OPEN -> this.close();
+            case CLOSED -> this.record(false);
+            case OPEN -> { }
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (this.state) {
+            case HALF_OPEN -> this.open();
+            case CLOSED -> {
+                this.record(true);
+                if (this.calls >= this.minimumCalls && this.failures >= this.failureRateThreshold * this.calls) {
+                    this.open();
+                }
+            }
+            case OPEN -> { }
+        }
+    }
+
+    public synchronized State state() {
+        return this.state;
+    }
+
+    private void record(boolean failure) {
+        if (this.calls == this.outcomes.length) {
+            if (this.outcomes[this.next]) this.failures--;
+        } else {
+            this.calls++;
+        }
+        this.outcomes[this.next] = failure;
+        if (failure) this.failures++;
+        this.next = (this.next + 1) % this.outcomes.length;
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAt = this.nanoClock.getAsLong();
+    }
+
+    private void close() {
+        this.state = State.CLOSED;
+        this.calls = 0;
+        this.failures = 0;
+        this.next = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.platzi.play.domain.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Ultimas latencias observadas, para calcular percentiles sin histogramas. La ventana es chica,
+ * asi que ordenar una copia al consultar es mas barato que mantenerla ordenada.
+ */
+public class LatencyWindow {
+    private final long[] samples;
+    private int size;
+    private int next;
+
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        this.samples[this.next] = nanos;
+        this.next = (this.next + 1) % this.samples.length;
+        if (this.size < this.samples.length) this.size++;
+    }
+
+    /**
+     * @return el percentil pedido en nanosegundos, o -1 si todavia no hay muestras
+     */
+    public long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (this.size == 0) return -1;
+            sorted = Arrays.copyOf(this.samples, this.size);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+}
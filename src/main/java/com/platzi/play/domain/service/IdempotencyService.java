@@ -0,0 +1,300 @@
+package com.platzi.play.domain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.IdempotencyRecord;
+import com.platzi.play.domain.exception.IdempotencyKeyReusedException;
+import com.platzi.play.domain.exception.IdempotencyRequestInProgressException;
+import com.platzi.play.domain.exception.InvalidIdempotencyKeyException;
+import com.platzi.play.domain.repository.IdempotencyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una escritura una sola vez por Idempotency-Key y guarda su respuesta serializada.
+ * Un reintento con la misma clave recibe esa respuesta sin volver a la base; si el original
+ * sigue en curso, el reintento lo espera en lugar de competir con el. Las respuestas viven en
+ * memoria con tope de entradas y expiran pasado el ttl; opcionalmente tambien se guardan en base.
+ * Con base, la clave se reserva alli antes de ejecutar: un reintento que cae en otro nodo mientras
+ * el original sigue en curso espera su respuesta (o recibe 409) en lugar de repetir la escritura.
+ * Los pedidos que fallan no se guardan, asi que el siguiente reintento se vuelve a ejecutar.
+ */
+@Service
+public class IdempotencyService {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long CLAIM_POLL_MILLIS = 100;
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final ObjectMapper objectMapper;
+    private final IdempotencyRepository idempotencyRepository;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final Duration claimTimeout;
+    private final Clock clock;
+
+    public IdempotencyService(ObjectMapper objectMapper, ObjectProvider<IdempotencyRepository> idempotencyRepository,
+                              @Value("${platzi-play.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${platzi-play.idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${platzi-play.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                              @Value("${platzi-play.idempotency.claim-timeout:15m}") Duration claimTimeout) {
+        this(objectMapper, idempotencyRepository.getIfAvailable(), ttl, maxEntries, waitTimeout, claimTimeout, Clock.systemUTC());
+    }
+
+    IdempotencyService(ObjectMapper objectMapper, IdempotencyRepository idempotencyRepository, Duration ttl, int maxEntries,
+                       Duration waitTimeout, Duration claimTimeout, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.idempotencyRepository = idempotencyRepository;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+        this.claimTimeout = claimTimeout;
+        this.clock = clock;
+    }
+
+    /**
+     * @param scope   separa las claves de cada operacion (la misma clave en dos rutas no se mezcla)
+     * @param request contenido del pedido; un reintento con la misma clave debe traer el mismo contenido
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException();
+        }
+        String storeKey = scope + ":" + key;
+        String fingerprint = this.fingerprint(request);
+
+        while (true) {
+            Entry entry = new Entry(fingerprint);
+            Entry existing = this.putIfAbsent(storeKey, entry);
+            if (existing == null) {
+                return this.run(storeKey, entry, responseType, action);
+            }
+
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException();
+            }
+            byte[] response = this.await(existing);
+            if (response != null) {
+                return new Result<>(this.read(response, responseType), true);
+            }
+            // El pedido original fallo sin dejar respuesta: este reintento lo vuelve a ejecutar
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.idempotency.purge-interval:5m}")
+    public void purgeExpired() {
+        Instant now = this.clock.instant();
+        synchronized (this.entries) {
+            this.entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+
+        if (this.idempotencyRepository != null) {
+            try {
+                this.idempotencyRepository.deleteExpired(now);
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron borrar las claves de idempotencia expiradas", e);
+            }
+        }
+    }
+
+    private <T> Result<T> run(String storeKey, Entry entry, Class<T> responseType, Supplier<T> action) {
+        boolean claimed = false;
+        try {
+            IdempotencyRecord stored = this.claimOrAwait(storeKey, entry.fingerprint);
+            if (stored != null) {
+                entry.complete(stored.response(), stored.expiresAt());
+                return new Result<>(this.read(stored.response(), responseType), true);
+            }
+            claimed = this.idempotencyRepository != null;
+
+            T value = action.get();
+            byte[] response = this.write(value);
+            Instant expiresAt = this.clock.instant().plus(this.ttl);
+            entry.complete(response, expiresAt);
+            this.persist(new IdempotencyRecord(storeKey, entry.fingerprint, response, expiresAt));
+            return new Result<>(value, false);
+        } catch (RuntimeException e) {
+            synchronized (this.entries) {
+                this.entries.remove(storeKey, entry);
+            }
+            if (claimed) {
+                this.release(storeKey);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Entry putIfAbsent(String storeKey, Entry entry) {
+        synchronized (this.entries) {
+            Instant now = this.clock.instant();
+            Entry existing = this.entries.get(storeKey);
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+
+            this.entries.remove(storeKey);
+            if (this.entries.size() >= this.maxEntries) {
+                this.evict(now);
+            }
+            this.entries.put(storeKey, entry);
+            return null;
+        }
+    }
+
+    // Primero las expiradas y, si no alcanza, las terminadas mas antiguas; las que estan en curso se conservan
+    private void evict(Instant now) {
+        this.entries.values().removeIf(entry -> entry.isExpired(now));
+
+        Iterator<Entry> iterator = this.entries.values().iterator();
+        while (this.entries.size() >= this.maxEntries && iterator.hasNext()) {
+            if (iterator.next().response.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private byte[] await(Entry entry) {
+        try {
+            return entry.response.get(this.waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw new IdempotencyRequestInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyRequestInProgressException();
+        }
+    }
+
+    /**
+     * Reserva la clave en base. Si otro nodo la tiene, espera su respuesta hasta wait-timeout.
+     * @return la respuesta guardada por otro nodo, o null si este nodo debe ejecutar el pedido
+     */
+    private IdempotencyRecord claimOrAwait(String storeKey, String fingerprint) {
+        if (this.idempotencyRepository == null) return null;
+
+        long deadline = System.nanoTime() + this.waitTimeout.toNanos();
+        while (true) {
+            Optional<IdempotencyRecord> stored;
+            try {
+                Instant now = this.clock.instant();
+                if (this.idempotencyRepository.claim(storeKey, fingerprint, now, now.plus(this.claimTimeout))) return null;
+                stored = this.idempotencyRepository.find(storeKey, now);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo reservar la clave de idempotencia {}, se ejecuta el pedido", storeKey, e);
+                return null;
+            }
+
+            // Sin fila la reserva se libero o vencio entre las dos consultas: se intenta otra vez
+            if (stored.isPresent()) {
+                IdempotencyRecord record = stored.get();
+                if (!record.fingerprint().equals(fingerprint)) {
+                    throw new IdempotencyKeyReusedException();
+                }
+                if (record.response() != null) return record;
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IdempotencyRequestInProgressException();
+            }
+            try {
+                Thread.sleep(CLAIM_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyRequestInProgressException();
+            }
+        }
+    }
+
+    private void release(String storeKey) {
+        try {
+            this.idempotencyRepository.release(storeKey);
+        } catch (RuntimeException e) {
+            // La reserva vence sola pasado claim-timeout
+            log.warn("No se pudo liberar la clave de idempotencia {}", storeKey, e);
+        }
+    }
+
+    private void persist(IdempotencyRecord record) {
+        if (this.idempotencyRepository == null) return;
+
+        try {
+            this.idempotencyRepository.complete(record);
+        } catch (RuntimeException e) {
+            // La respuesta ya esta en memoria; solo se pierde la proteccion entre nodos para esta clave
+            log.warn("No se pudo guardar la clave de idempotencia {}", record.key(), e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] content = request == null ? new byte[0] : this.objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella del pedido.", e);
+        }
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return this.objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta idempotente.", e);
+        }
+    }
+
+    private <T> T read(byte[] response, Class<T> responseType) {
+        try {
+            return this.objectMapper.readValue(response, responseType);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta idempotente guardada.", e);
+        }
+    }
+
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<byte[]> response = new CompletableFuture<>();
+        private volatile Instant expiresAt;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private void complete(byte[] response, Instant expiresAt) {
+            this.expiresAt = expiresAt;
+            this.response.complete(response);
+        }
+
+        private boolean isExpired(Instant now) {
+            Instant expiresAt = this.expiresAt;
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+    }
+}
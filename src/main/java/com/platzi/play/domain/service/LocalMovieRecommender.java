@@ -0,0 +1,131 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recomendador por reglas que responde en milisegundos sin llamar al modelo de IA. Busca en las
+ * preferencias palabras asociadas a cada genero y a la duracion o antiguedad deseada, puntua las
+ * peliculas disponibles y devuelve como maximo 3, igual que el prompt de PlatziPlayAiService.
+ */
+@Component
+public class LocalMovieRecommender {
+    static final int MAX_SUGGESTIONS = 3;
+
+    private static final Map<Genre, List<String>> GENRE_KEYWORDS = Map.of(
+            Genre.ACTION, List.of("accion", "action", "pelea", "explosion", "adrenalina", "persecucion"),
+            Genre.COMEDY, List.of("comedia", "comedy", "risa", "reir", "divertid", "humor", "gracios"),
+            Genre.DRAMA, List.of("drama", "emotiv", "llorar", "conmovedor", "historia real"),
+            Genre.ANIMATED, List.of("animad", "animacion", "animated", "infantil", "nino", "familia", "dibujo"),
+            Genre.HORROR, List.of("terror", "horror", "miedo", "susto", "asust", "scary", "suspenso"),
+            Genre.SCI_FI, List.of("ciencia ficcion", "sci-fi", "scifi", "futur", "espacio", "robot", "alien", "ciencia")
+    );
+    private static final List<String> SHORT_KEYWORDS = List.of("corta", "rapida", "short");
+    private static final List<String> LONG_KEYWORDS = List.of("larga", "epica", "long");
+    private static final List<String> CLASSIC_KEYWORDS = List.of("clasic", "antigua", "vieja", "classic", "retro");
+    private static final List<String> RECENT_KEYWORDS = List.of("reciente", "nueva", "estreno", "actual", "recent", "new");
+
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final MovieService movieService;
+
+    public LocalMovieRecommender(MovieCatalogIndex movieCatalogIndex, MovieService movieService) {
+        this.movieCatalogIndex = movieCatalogIndex;
+        this.movieService = movieService;
+    }
+
+    public String recommend(String userPreferences) {
+        List<MovieDto> suggestions = this.rank(userPreferences);
+        if (suggestions.isEmpty()) {
+            return "Por ahora no hay peliculas disponibles en PlatziPlay para recomendarte.";
+        }
+
+        StringBuilder text = new StringBuilder("Te recomendamos estas peliculas de PlatziPlay:");
+        for (int i = 0; i < suggestions.size(); i++) {
+            MovieDto movie = suggestions.get(i);
+            text.append('\n').append(i + 1).append(". ").append(movie.title());
+            if (movie.genre() != null) text.append(" (").append(movie.genre());
+            if (movie.releaseDate() != null) text.append(movie.genre() != null ? ", " : " (").append(movie.releaseDate().getYear());
+            if (movie.genre() != null || movie.releaseDate() != null) text.append(')');
+            if (movie.rating() != null) text.append(" - clasificacion ").append(movie.rating());
+        }
+        return text.toString();
+    }
+
+    List<MovieDto> rank(String userPreferences) {
+        Preferences preferences = Preferences.parse(userPreferences);
+        List<MovieDto> catalog = this.movieCatalogIndex.isReady()
+                ? this.movieCatalogIndex.getAll().stream().map(IndexedMovie::movie).toList()
+                : this.movieService.getAll();
+
+        return catalog.stream()
+                .filter(movie -> !preferences.mentions(movie.title()))
+                .sorted(Comparator.comparingDouble((MovieDto movie) -> preferences.score(movie)).reversed()
+                        .thenComparing(MovieDto::title, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(MAX_SUGGESTIONS)
+                .toList();
+    }
+
+    private record Preferences(String text, Set<Genre> genres, boolean shortMovie, boolean longMovie, boolean classic, boolean recent) {
+
+        static Preferences parse(String userPreferences) {
+            String text = normalize(userPreferences);
+
+            Set<Genre> genres = EnumSet.noneOf(Genre.class);
+            GENRE_KEYWORDS.forEach((genre, keywords) -> {
+                if (containsAny(text, keywords)) genres.add(genre);
+            });
+            return new Preferences(text, genres, containsAny(text, SHORT_KEYWORDS), containsAny(text, LONG_KEYWORDS),
+                    containsAny(text, CLASSIC_KEYWORDS), containsAny(text, RECENT_KEYWORDS));
+        }
+
+        // El genero pesa mas que todo lo demas junto; la clasificacion desempata entre las que cumplen
+        double score(MovieDto movie) {
+            double score = movie.rating() == null ? 0 : movie.rating() / 5;
+            if (movie.genre() != null && this.genres.contains(movie.genre())) score += 3;
+
+            if (movie.duration() != null) {
+                if (this.shortMovie && movie.duration() <= 100) score += 1;
+                if (this.longMovie && movie.duration() >= 140) score += 1;
+            }
+            if (movie.releaseDate() != null) {
+                int year = movie.releaseDate().getYear();
+                if (this.classic && year < 2000) score += 1;
+                if (this.recent && year >= 2015) score += 1;
+            }
+            return score;
+        }
+
+        // Si el usuario nombra una pelicula es porque ya la vio; no se la volvemos a sugerir
+        boolean mentions(String title) {
+            if (title == null) return false;
+
+            String normalized = normalize(title);
+            return normalized.length() > 3 && this.text.contains(normalized);
+        }
+
+        private static boolean containsAny(String text, List<String> keywords) {
+            for (String keyword : keywords) {
+                if (text.contains(keyword)) return true;
+            }
+            return false;
+        }
+
+        private static String normalize(String value) {
+            if (value == null) return "";
+
+            String withoutAccents = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            return withoutAccents.toLowerCase(Locale.ROOT);
+        }
+    }
+}
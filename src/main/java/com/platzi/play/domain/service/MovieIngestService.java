@@ -0,0 +1,21 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.repository.MovieBulkRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.Reader;
+
+@Service
+public class MovieIngestService {
+    private final MovieBulkRepository movieBulkRepository;
+
+    public MovieIngestService(MovieBulkRepository movieBulkRepository) {
+        this.movieBulkRepository = movieBulkRepository;
+    }
+
+    public IngestReportDto ingest(Reader reader, IngestFormat format) {
+        return this.movieBulkRepository.ingest(reader, format);
+    }
+}
@@ -0,0 +1,167 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.MoviePlayDelta;
+import com.platzi.play.domain.dto.MoviePlaysDto;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.repository.MoviePlayRepository;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de reproducciones sin contencion: cada pelicula tiene LongAdder propios, asi que
+ * miles de eventos por segundo sobre la misma pelicula no compiten por un mismo valor. Las
+ * diferencias se vuelcan en lotes a platzi_play_reproducciones y el ranking se calcula en memoria.
+ */
+@Service
+public class MoviePlayService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(MoviePlayService.class);
+    private static final int MAX_RANKING = 100;
+
+    private final MoviePlayRepository moviePlayRepository;
+    private final MovieRepository movieRepository;
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final long rankingRefreshNanos;
+    private final Map<Long, PlayCounter> counters = new ConcurrentHashMap<>();
+    private volatile Ranking ranking;
+
+    public MoviePlayService(MoviePlayRepository moviePlayRepository, MovieRepository movieRepository, MovieCatalogIndex movieCatalogIndex,
+                            @Value("${platzi-play.plays.ranking-refresh:1s}") Duration rankingRefresh) {
+        this.moviePlayRepository = moviePlayRepository;
+        this.movieRepository = movieRepository;
+        this.movieCatalogIndex = movieCatalogIndex;
+        this.rankingRefreshNanos = rankingRefresh.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCounts() {
+        try {
+            this.moviePlayRepository.getPlayCounts().forEach((id, plays) -> this.counterOf(id).total.add(plays));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron cargar los contadores de reproducciones", e);
+        }
+    }
+
+    public void play(long movieId) {
+        PlayCounter counter = this.counters.get(movieId);
+        if (counter == null) {
+            this.requireAvailable(movieId);
+            counter = this.counterOf(movieId);
+        }
+
+        counter.pending.increment();
+        counter.total.increment();
+    }
+
+    public List<MoviePlaysDto> getMostPlayed(int n) {
+        Ranking current = this.ranking;
+        if (current == null || System.nanoTime() - current.builtAt() > this.rankingRefreshNanos) {
+            current = this.buildRanking();
+            this.ranking = current;
+        }
+
+        List<MoviePlaysDto> top = current.movies();
+        return top.subList(0, Math.min(n, top.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.plays.flush-interval:2s}")
+    public synchronized void flush() {
+        List<MoviePlayDelta> deltas = new ArrayList<>();
+        this.counters.forEach((id, counter) -> {
+            long plays = counter.pending.sumThenReset();
+            if (plays > 0) deltas.add(new MoviePlayDelta(id, plays));
+        });
+        if (deltas.isEmpty()) return;
+
+        try {
+            this.moviePlayRepository.addPlays(deltas);
+        } catch (RuntimeException e) {
+            // Las diferencias vuelven a quedar pendientes para el proximo volcado
+            log.warn("No se pudieron guardar las reproducciones de {} peliculas, se reintentara", deltas.size(), e);
+            deltas.forEach(delta -> this.counterOf(delta.movieId()).pending.add(delta.plays()));
+        }
+    }
+
+    public long getPlays(long movieId) {
+        PlayCounter counter = this.counters.get(movieId);
+        return counter == null ? 0 : counter.total.sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.operation() == MovieChangedEvent.Operation.DELETED) {
+            this.counters.remove(event.movieId());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.flush();
+    }
+
+    private Ranking buildRanking() {
+        // Heap acotado: O(peliculas * log 100) sin ordenar todos los contadores
+        PriorityQueue<long[]> heap = new PriorityQueue<>(MAX_RANKING + 1, Comparator.comparingLong(entry -> entry[1]));
+        this.counters.forEach((id, counter) -> {
+            long plays = counter.total.sum();
+            if (plays == 0) return;
+            if (heap.size() < MAX_RANKING) {
+                heap.add(new long[]{id, plays});
+            } else if (plays > heap.peek()[1]) {
+                heap.poll();
+                heap.add(new long[]{id, plays});
+            }
+        });
+
+        List<long[]> ordered = new ArrayList<>(heap);
+        ordered.sort(Comparator.comparingLong((long[] entry) -> entry[1]).reversed());
+
+        List<MoviePlaysDto> movies = new ArrayList<>(ordered.size());
+        for (long[] entry : ordered) {
+            Optional<IndexedMovie> movie = this.movieCatalogIndex.get(entry[0]);
+            movies.add(new MoviePlaysDto(entry[0], movie.map(indexed -> indexed.movie().title()).orElse(null), entry[1]));
+        }
+        return new Ranking(List.copyOf(movies), System.nanoTime());
+    }
+
+    private void requireAvailable(long movieId) {
+        boolean available = this.movieCatalogIndex.isReady()
+                ? this.movieCatalogIndex.get(movieId).isPresent()
+                : this.movieRepository.findAvailableById(movieId).isPresent();
+        if (!available) {
+            throw MovieNotFound.INSTANCE;
+        }
+    }
+
+    private PlayCounter counterOf(long movieId) {
+        return this.counters.computeIfAbsent(movieId, id -> new PlayCounter());
+    }
+
+    private static final class PlayCounter {
+        private final LongAdder pending = new LongAdder();
+        private final LongAdder total = new LongAdder();
+    }
+
+    private record Ranking(List<MoviePlaysDto> movies, long builtAt) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieIndexListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Rankings por clasificacion mantenidos en skip lists ordenadas, una global y una por genero.
+ * Cada cambio quita la entrada anterior e inserta la nueva en O(log n); leer el top N solo
+ * recorre los primeros N elementos y no bloquea a las escrituras.
+ */
+@Service
+public class MovieRankingService implements MovieIndexListener {
+    // Mayor clasificacion primero, a igual clasificacion el estreno mas reciente, y el id para desempatar
+    static final Comparator<IndexedMovie> RANKING = Comparator
+            .comparing((IndexedMovie movie) -> movie.movie().rating(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(movie -> movie.movie().releaseDate(), Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))
+            .thenComparingLong(IndexedMovie::id);
+
+    // Una reconstruccion arma rankings nuevos y los reemplaza de una vez: /movies/top nunca los ve a medio llenar
+    private volatile Rankings rankings = new Rankings();
+
+    public List<MovieDto> getTop(Genre genre, int n) {
+        Rankings rankings = this.rankings;
+        NavigableSet<IndexedMovie> ranking = genre == null ? rankings.global : rankings.byGenre.get(genre);
+
+        List<MovieDto> top = new ArrayList<>(n);
+        Iterator<IndexedMovie> iterator = ranking.iterator();
+        while (top.size() < n && iterator.hasNext()) {
+            top.add(iterator.next().movie());
+        }
+        return top;
+    }
+
+    @Override
+    public void onIndexRebuilt(Collection<IndexedMovie> movies) {
+        Rankings rebuilt = new Rankings();
+        movies.forEach(rebuilt::add);
+        this.rankings = rebuilt;
+    }
+
+    @Override
+    public void onMovieIndexed(IndexedMovie previous, IndexedMovie current) {
+        Rankings rankings = this.rankings;
+        if (previous != null) rankings.remove(previous);
+        if (current != null) rankings.add(current);
+    }
+
+    private static final class Rankings {
+        private final NavigableSet<IndexedMovie> global = new ConcurrentSkipListSet<>(RANKING);
+        private final Map<Genre, NavigableSet<IndexedMovie>> byGenre = new EnumMap<>(Genre.class);
+
+        private Rankings() {
+            for (Genre genre : Genre.values()) {
+                this.byGenre.put(genre, new ConcurrentSkipListSet<>(RANKING));
+            }
+        }
+
+        private void add(IndexedMovie movie) {
+            this.global.add(movie);
+            if (movie.movie().genre() != null) {
+                this.byGenre.get(movie.movie().genre()).add(movie);
+            }
+        }
+
+        private void remove(IndexedMovie movie) {
+            this.global.remove(movie);
+            if (movie.movie().genre() != null) {
+                this.byGenre.get(movie.movie().genre()).remove(movie);
+            }
+        }
+    }
+}
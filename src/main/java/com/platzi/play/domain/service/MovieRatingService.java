@@ -0,0 +1,131 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.MovieRatingDelta;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.repository.MovieRatingRepository;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recibe votos de usuarios sin escribir en la base por cada uno. Los votos se suman en memoria
+ * repartidos en franjas con su propio candado, y se vuelcan en lotes cada cierto intervalo o
+ * antes si se acumulan demasiados. Si el proceso cae se pierden como maximo los votos pendientes.
+ */
+@Service
+public class MovieRatingService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(MovieRatingService.class);
+    private static final int STRIPES = 64;
+
+    private final MovieRatingRepository movieRatingRepository;
+    private final MovieRepository movieRepository;
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxPendingPerStripe;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    public MovieRatingService(MovieRatingRepository movieRatingRepository, MovieRepository movieRepository, MovieCatalogIndex movieCatalogIndex,
+                              @Value("${platzi-play.ratings.max-pending-votes:50000}") int maxPendingVotes) {
+        this.movieRatingRepository = movieRatingRepository;
+        this.movieRepository = movieRepository;
+        this.movieCatalogIndex = movieCatalogIndex;
+        this.maxPendingPerStripe = Math.max(1, maxPendingVotes / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    public void rate(long movieId, int score) {
+        this.requireAvailable(movieId);
+
+        Stripe stripe = this.stripes[stripeOf(movieId)];
+        boolean full;
+        synchronized (stripe) {
+            stripe.pending.merge(movieId, new MovieRatingDelta(movieId, score, 1), MovieRatingDelta::plus);
+            full = ++stripe.votes >= this.maxPendingPerStripe;
+        }
+
+        if (full && this.flushRequested.compareAndSet(false, true)) {
+            // Acota la perdida ante una caida sin esperar al siguiente intervalo
+            Thread.ofVirtual().name("movie-ratings-flush").start(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.ratings.flush-interval:5s}")
+    public synchronized void flush() {
+        this.flushRequested.set(false);
+
+        List<MovieRatingDelta> deltas = new ArrayList<>();
+        for (Stripe stripe : this.stripes) {
+            Map<Long, MovieRatingDelta> drained;
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty()) continue;
+                drained = stripe.pending;
+                stripe.pending = new HashMap<>();
+                stripe.votes = 0;
+            }
+            deltas.addAll(drained.values());
+        }
+        if (deltas.isEmpty()) return;
+
+        try {
+            this.movieRatingRepository.addRatings(deltas);
+        } catch (RuntimeException e) {
+            // Los votos vuelven a las franjas y se reintentan en el proximo volcado
+            log.warn("No se pudieron guardar {} calificaciones pendientes, se reintentara", deltas.size(), e);
+            deltas.forEach(this::restore);
+        }
+    }
+
+    public long pendingVotes() {
+        long votes = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                votes += stripe.votes;
+            }
+        }
+        return votes;
+    }
+
+    @Override
+    public void destroy() {
+        this.flush();
+    }
+
+    private void requireAvailable(long movieId) {
+        boolean available = this.movieCatalogIndex.isReady()
+                ? this.movieCatalogIndex.get(movieId).isPresent()
+                : this.movieRepository.findAvailableById(movieId).isPresent();
+        if (!available) {
+            throw MovieNotFound.INSTANCE;
+        }
+    }
+
+    private void restore(MovieRatingDelta delta) {
+        Stripe stripe = this.stripes[stripeOf(delta.movieId())];
+        synchronized (stripe) {
+            stripe.pending.merge(delta.movieId(), delta, MovieRatingDelta::plus);
+            stripe.votes += delta.count();
+        }
+    }
+
+    private static int stripeOf(long movieId) {
+        return (int) ((movieId * 0x9E3779B97F4A7C15L) >>> 58);
+    }
+
+    private static final class Stripe {
+        private Map<Long, MovieRatingDelta> pending = new HashMap<>();
+        private long votes;
+    }
+}
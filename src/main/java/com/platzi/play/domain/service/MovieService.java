@@ -1,29 +1,72 @@
 package com.platzi.play.domain.service;
 
+import com.platzi.play.domain.MovieField;
+import com.platzi.play.domain.MovieSyncToken;
+import com.platzi.play.domain.dto.MovieChangesDto;
 import com.platzi.play.domain.dto.MovieDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
 import com.platzi.play.domain.repository.MovieRepository;
 import dev.langchain4j.agent.tool.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MovieService {
+    private static final Logger log = LoggerFactory.getLogger(MovieService.class);
+
     private final MovieRepository movieRepository;
+    private final MovieCatalogIndex movieCatalogIndex;
 
-    public MovieService(MovieRepository movieRepository) {
+    public MovieService(MovieRepository movieRepository, MovieCatalogIndex movieCatalogIndex) {
         this.movieRepository = movieRepository;
+        this.movieCatalogIndex = movieCatalogIndex;
     }
 
+    /**
+     * Sin base se responde con el indice en memoria (cargado del snapshot o de la ultima lectura).
+     * Mientras el indice siga sirviendo un snapshot sin reconciliar ni se intenta la base: cada lectura
+     * esperaria el timeout de conexion del pool para terminar igual en el indice.
+     */
     @Tool("Busca todas las peliculas que existan dentro de la plataforma PlatziPlay")
     public List<MovieDto> getAll() {
-        return this.movieRepository.getAll();
+        if (this.movieCatalogIndex.isServingSnapshot()) return this.getAllFromIndex();
+
+        try {
+            return this.movieRepository.getAll();
+        } catch (DataAccessException | TransactionException e) {
+            // Con la base caida las lecturas readOnly fallan al abrir la transaccion (CannotCreateTransactionException)
+            if (!this.movieCatalogIndex.isReady()) throw e;
+
+            log.warn("Base de datos no disponible, catalogo servido desde el indice en memoria: {}", e.getMessage());
+            return this.getAllFromIndex();
+        }
+    }
+
+    public List<Map<String, Object>> getAll(Set<MovieField> fields) {
+        return this.movieRepository.getAll(fields);
     }
 
     public MovieDto getById(long id) {
+        if (this.movieCatalogIndex.isServingSnapshot()) return this.getByIdFromIndex(id);
+
+        try {
+            return this.movieRepository.getById(id);
+        } catch (DataAccessException | TransactionException e) {
+            if (!this.movieCatalogIndex.isReady()) throw e;
 
-        return this.movieRepository.getById(id);
+            log.warn("Base de datos no disponible, pelicula {} servida desde el indice en memoria: {}", id, e.getMessage());
+            return this.getByIdFromIndex(id);
+        }
     }
 
     public MovieDto add(MovieDto movieDto) {
@@ -37,4 +80,16 @@ public class MovieService {
     public void delete(long id) {
          this.movieRepository.delete(id);
     }
+
+    public MovieChangesDto getChangesSince(String token, int limit) {
+        return this.movieRepository.getChangesSince(MovieSyncToken.decode(token), limit);
+    }
+
+    private List<MovieDto> getAllFromIndex() {
+        return this.movieCatalogIndex.getAll().stream().map(IndexedMovie::movie).toList();
+    }
+
+    private MovieDto getByIdFromIndex(long id) {
+        return this.movieCatalogIndex.get(id).map(IndexedMovie::movie).orElseThrow(() -> MovieNotFound.INSTANCE);
+    }
 }
@@ -0,0 +1,225 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.index.MovieIndexListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Peliculas parecidas por vecinos mas cercanos sobre genero, duracion, año de estreno y clasificacion.
+ * Los vectores se guardan en arreglos planos por genero; una consulta recorre primero su propio genero
+ * y solo mira los demas si algun candidato de otro genero todavia podria quedar entre los k mejores.
+ */
+@Service
+public class MovieSimilarityService implements MovieIndexListener {
+    // Escalas: 1.0 de distancia equivale a cambiar de genero, a 60 minutos, a 15 años o a 1.25 puntos de clasificacion
+    private static final float GENRE_DISTANCE = 1.0f;
+    private static final float DURATION_SCALE = 60f;
+    private static final float YEAR_SCALE = 15f;
+    private static final float RATING_SCALE = 1.25f;
+    private static final float DEFAULT_DURATION = 110f;
+    private static final float DEFAULT_YEAR = 2000f;
+    private static final float DEFAULT_RATING = 2.5f;
+
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final Partition[] partitions = new Partition[Genre.values().length];
+    private final Partition withoutGenre = new Partition();
+    private final Map<Long, Partition> partitionOf = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MovieSimilarityService(MovieCatalogIndex movieCatalogIndex) {
+        this.movieCatalogIndex = movieCatalogIndex;
+        for (int i = 0; i < this.partitions.length; i++) {
+            this.partitions[i] = new Partition();
+        }
+    }
+
+    public List<MovieDto> getSimilar(long movieId, int k) {
+        long[] neighbours;
+
+        this.lock.readLock().lock();
+        try {
+            Partition own = this.partitionOf.get(movieId);
+            if (own == null) {
+                throw MovieNotFound.INSTANCE;
+            }
+
+            int slot = own.slotOf.get(movieId);
+            Neighbours best = new Neighbours(k);
+            own.scan(movieId, own.duration[slot], own.year[slot], own.rating[slot], 0f, best);
+
+            // Con k candidatos mas cerca que un cambio de genero, ningun otro genero puede mejorar el resultado
+            if (!best.isFull() || best.worst() > GENRE_DISTANCE * GENRE_DISTANCE) {
+                for (Partition partition : this.allPartitions()) {
+                    if (partition != own) {
+                        partition.scan(movieId, own.duration[slot], own.year[slot], own.rating[slot], GENRE_DISTANCE * GENRE_DISTANCE, best);
+                    }
+                }
+            }
+            neighbours = best.idsByDistance();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        List<MovieDto> similar = new ArrayList<>(neighbours.length);
+        for (long id : neighbours) {
+            this.movieCatalogIndex.get(id).ifPresent(movie -> similar.add(movie.movie()));
+        }
+        return similar;
+    }
+
+    @Override
+    public void onIndexRebuilt(Collection<IndexedMovie> movies) {
+        this.lock.writeLock().lock();
+        try {
+            this.allPartitions().forEach(Partition::clear);
+            this.partitionOf.clear();
+            movies.forEach(this::add);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onMovieIndexed(IndexedMovie previous, IndexedMovie current) {
+        this.lock.writeLock().lock();
+        try {
+            if (previous != null) this.remove(previous.id());
+            if (current != null) this.add(current);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void add(IndexedMovie indexed) {
+        MovieDto movie = indexed.movie();
+        Partition partition = movie.genre() == null ? this.withoutGenre : this.partitions[movie.genre().ordinal()];
+        partition.add(indexed.id(),
+                (movie.duration() == null ? DEFAULT_DURATION : movie.duration()) / DURATION_SCALE,
+                (movie.releaseDate() == null ? DEFAULT_YEAR : movie.releaseDate().getYear()) / YEAR_SCALE,
+                (float) (movie.rating() == null ? DEFAULT_RATING : movie.rating()) / RATING_SCALE);
+        this.partitionOf.put(indexed.id(), partition);
+    }
+
+    private void remove(long id) {
+        Partition partition = this.partitionOf.remove(id);
+        if (partition != null) {
+            partition.remove(id);
+        }
+    }
+
+    private List<Partition> allPartitions() {
+        List<Partition> all = new ArrayList<>(this.partitions.length + 1);
+        all.addAll(Arrays.asList(this.partitions));
+        all.add(this.withoutGenre);
+        return all;
+    }
+
+    // Estructura de arreglos: el recorrido lee memoria contigua en lugar de seguir referencias a objetos
+    private static final class Partition {
+        private long[] ids = new long[16];
+        private float[] duration = new float[16];
+        private float[] year = new float[16];
+        private float[] rating = new float[16];
+        private final Map<Long, Integer> slotOf = new HashMap<>();
+        private int size;
+
+        void add(long id, float duration, float year, float rating) {
+            if (this.size == this.ids.length) {
+                int capacity = this.size * 2;
+                this.ids = Arrays.copyOf(this.ids, capacity);
+                this.duration = Arrays.copyOf(this.duration, capacity);
+                this.year = Arrays.copyOf(this.year, capacity);
+                this.rating = Arrays.copyOf(this.rating, capacity);
+            }
+            this.ids[this.size] = id;
+            this.duration[this.size] = duration;
+            this.year[this.size] = year;
+            this.rating[this.size] = rating;
+            this.slotOf.put(id, this.size++);
+        }
+
+        void remove(long id) {
+            Integer slot = this.slotOf.remove(id);
+            if (slot == null) return;
+
+            // El ultimo elemento ocupa el hueco para mantener los arreglos compactos
+            int last = --this.size;
+            if (slot != last) {
+                this.ids[slot] = this.ids[last];
+                this.duration[slot] = this.duration[last];
+                this.year[slot] = this.year[last];
+                this.rating[slot] = this.rating[last];
+                this.slotOf.put(this.ids[slot], slot);
+            }
+        }
+
+        void clear() {
+            this.slotOf.clear();
+            this.size = 0;
+        }
+
+        void scan(long excludedId, float duration, float year, float rating, float baseDistance, Neighbours best) {
+            for (int i = 0; i < this.size; i++) {
+                float dd = this.duration[i] - duration;
+                float dy = this.year[i] - year;
+                float dr = this.rating[i] - rating;
+                float distance = baseDistance + dd * dd + dy * dy + dr * dr;
+                if (best.accepts(distance) && this.ids[i] != excludedId) {
+                    best.offer(this.ids[i], distance);
+                }
+            }
+        }
+    }
+
+    // Los k mejores candidatos ordenados por distancia; k es chico, asi que la insercion ordenada basta
+    private static final class Neighbours {
+        private final long[] ids;
+        private final float[] distances;
+        private int size;
+
+        Neighbours(int k) {
+            this.ids = new long[k];
+            this.distances = new float[k];
+        }
+
+        boolean isFull() {
+            return this.size == this.ids.length;
+        }
+
+        float worst() {
+            return this.distances[this.size - 1];
+        }
+
+        boolean accepts(float distance) {
+            return !this.isFull() || distance < this.worst();
+        }
+
+        void offer(long id, float distance) {
+            int position = this.isFull() ? this.size - 1 : this.size++;
+            while (position > 0 && this.distances[position - 1] > distance) {
+                this.ids[position] = this.ids[position - 1];
+                this.distances[position] = this.distances[position - 1];
+                position--;
+            }
+            this.ids[position] = id;
+            this.distances[position] = distance;
+        }
+
+        long[] idsByDistance() {
+            return Arrays.copyOf(this.ids, this.size);
+        }
+    }
+}
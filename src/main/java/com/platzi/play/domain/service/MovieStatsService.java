@@ -0,0 +1,124 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.GenreStatsDto;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieStatsDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.index.MovieIndexListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadisticas del catalogo mantenidas de forma incremental: cada alta, cambio o baja suma o resta
+ * la contribucion de una pelicula, asi que leerlas no depende del tamaño del catalogo.
+ */
+@Service
+public class MovieStatsService implements MovieIndexListener {
+    private static final int DURATION_BUCKET_MINUTES = 30;
+    private static final int DURATION_BUCKETS = 7;
+
+    private final MovieCatalogIndex movieCatalogIndex;
+
+    private final long[] countByGenre = new long[Genre.values().length];
+    private final long[] ratedByGenre = new long[Genre.values().length];
+    private final double[] ratingSumByGenre = new double[Genre.values().length];
+    private final long[] durationBuckets = new long[DURATION_BUCKETS];
+    private final Map<Integer, Long> releasesPerYear = new TreeMap<>();
+    private long total;
+    private MovieStatsDto current;
+
+    public MovieStatsService(MovieCatalogIndex movieCatalogIndex) {
+        this.movieCatalogIndex = movieCatalogIndex;
+    }
+
+    public synchronized MovieStatsDto getStats() {
+        if (this.current == null) {
+            this.current = this.snapshot();
+        }
+        return this.current;
+    }
+
+    public MovieStatsDto rebuild() {
+        this.movieCatalogIndex.rebuild();
+        return this.getStats();
+    }
+
+    @Override
+    public synchronized void onIndexRebuilt(Collection<IndexedMovie> movies) {
+        Arrays.fill(this.countByGenre, 0);
+        Arrays.fill(this.ratedByGenre, 0);
+        Arrays.fill(this.ratingSumByGenre, 0);
+        Arrays.fill(this.durationBuckets, 0);
+        this.releasesPerYear.clear();
+        this.total = 0;
+
+        for (IndexedMovie movie : movies) {
+            this.apply(movie.movie(), 1);
+        }
+        this.current = null;
+    }
+
+    @Override
+    public synchronized void onMovieIndexed(IndexedMovie previous, IndexedMovie current) {
+        if (previous != null) this.apply(previous.movie(), -1);
+        if (current != null) this.apply(current.movie(), 1);
+        this.current = null;
+    }
+
+    private void apply(MovieDto movie, int sign) {
+        this.total += sign;
+
+        if (movie.genre() != null) {
+            int genre = movie.genre().ordinal();
+            this.countByGenre[genre] += sign;
+            if (movie.rating() != null) {
+                this.ratedByGenre[genre] += sign;
+                this.ratingSumByGenre[genre] += sign * movie.rating();
+            }
+        }
+
+        if (movie.duration() != null) {
+            this.durationBuckets[durationBucket(movie.duration())] += sign;
+        }
+
+        if (movie.releaseDate() != null) {
+            this.releasesPerYear.merge(movie.releaseDate().getYear(), (long) sign, (count, delta) -> count + delta == 0 ? null : count + delta);
+        }
+    }
+
+    private MovieStatsDto snapshot() {
+        Map<Genre, GenreStatsDto> genres = new EnumMap<>(Genre.class);
+        for (Genre genre : Genre.values()) {
+            int i = genre.ordinal();
+            Double average = this.ratedByGenre[i] == 0 ? null : Math.round(this.ratingSumByGenre[i] / this.ratedByGenre[i] * 100) / 100.0;
+            genres.put(genre, new GenreStatsDto(this.countByGenre[i], average));
+        }
+
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (int i = 0; i < DURATION_BUCKETS; i++) {
+            durations.put(durationLabel(i), this.durationBuckets[i]);
+        }
+
+        // La respuesta se comparte entre lecturas hasta el siguiente cambio
+        return new MovieStatsDto(this.total, Collections.unmodifiableMap(genres), Collections.unmodifiableMap(durations),
+                Collections.unmodifiableMap(new TreeMap<>(this.releasesPerYear)));
+    }
+
+    private static int durationBucket(int duration) {
+        return Math.min(Math.max(duration, 0) / DURATION_BUCKET_MINUTES, DURATION_BUCKETS - 1);
+    }
+
+    private static String durationLabel(int bucket) {
+        int from = bucket * DURATION_BUCKET_MINUTES;
+        return bucket == DURATION_BUCKETS - 1 ? from + "+" : from + "-" + (from + DURATION_BUCKET_MINUTES - 1);
+    }
+}
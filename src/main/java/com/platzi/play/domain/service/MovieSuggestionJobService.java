@@ -0,0 +1,163 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.SuggestionJobStatus;
+import com.platzi.play.domain.SuggestionMode;
+import com.platzi.play.domain.dto.SuggestionJobDto;
+import com.platzi.play.domain.exception.SuggestionJobNotFoundException;
+import com.platzi.play.domain.exception.SuggestionQueueFullException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sugerencias en segundo plano para cargas por lotes. Los trabajos esperan en una cola con prioridad
+ * y los ejecuta un numero fijo de hilos, que limita cuantas llamadas simultaneas recibe el proveedor:
+ * cada hilo hace un solo intento y espera a que la llamada termine aunque venza el plazo.
+ * La cola y el almacen de resultados estan acotados; los resultados terminados expiran pasado el ttl.
+ */
+@Service
+public class MovieSuggestionJobService implements DisposableBean {
+    public static final int MIN_PRIORITY = 0;
+    public static final int MAX_PRIORITY = 9;
+
+    private final MovieSuggestionService movieSuggestionService;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int queueCapacity;
+    private final int maxJobs;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public MovieSuggestionJobService(MovieSuggestionService movieSuggestionService,
+                                     @Value("${platzi-play.suggestions.jobs.workers:4}") int workers,
+                                     @Value("${platzi-play.suggestions.jobs.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${platzi-play.suggestions.jobs.max-jobs:50000}") int maxJobs,
+                                     @Value("${platzi-play.suggestions.jobs.ttl:1h}") Duration ttl) {
+        this(movieSuggestionService, workers, queueCapacity, maxJobs, ttl, Clock.systemUTC());
+    }
+
+    MovieSuggestionJobService(MovieSuggestionService movieSuggestionService, int workers, int queueCapacity, int maxJobs, Duration ttl, Clock clock) {
+        this.movieSuggestionService = movieSuggestionService;
+        this.queueCapacity = queueCapacity;
+        this.maxJobs = maxJobs;
+        this.ttl = ttl;
+        this.clock = clock;
+        // Solo execute(): las tareas son Comparable y la cola las ordena por prioridad
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                Thread.ofPlatform().name("suggestion-worker-", 0).daemon().factory());
+    }
+
+    public SuggestionJobDto submit(String userPreferences, SuggestionMode mode, int priority) {
+        if (this.jobs.size() >= this.maxJobs) {
+            this.purgeExpired();
+            if (this.jobs.size() >= this.maxJobs) throw new SuggestionQueueFullException();
+        }
+        if (this.queued.incrementAndGet() > this.queueCapacity) {
+            this.queued.decrementAndGet();
+            throw new SuggestionQueueFullException();
+        }
+
+        int boundedPriority = Math.max(MIN_PRIORITY, Math.min(priority, MAX_PRIORITY));
+        Job job = new Job(UUID.randomUUID().toString(), boundedPriority, this.clock.instant());
+        this.jobs.put(job.id, job);
+        this.workers.execute(new Task(job, this.sequence.incrementAndGet(), userPreferences, mode));
+        return job.toDto();
+    }
+
+    public SuggestionJobDto get(String id) {
+        Job job = this.jobs.get(id);
+        if (job == null || job.isExpired(this.clock.instant(), this.ttl)) {
+            throw new SuggestionJobNotFoundException();
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.suggestions.jobs.purge-interval:1m}")
+    public void purgeExpired() {
+        Instant now = this.clock.instant();
+        this.jobs.values().removeIf(job -> job.isExpired(now, this.ttl));
+    }
+
+    @Override
+    public void destroy() {
+        this.workers.shutdownNow();
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+        private final Job job;
+        private final long sequence;
+        private final String userPreferences;
+        private final SuggestionMode mode;
+
+        private Task(Job job, long sequence, String userPreferences, SuggestionMode mode) {
+            this.job = job;
+            this.sequence = sequence;
+            this.userPreferences = userPreferences;
+            this.mode = mode;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            this.job.status = SuggestionJobStatus.RUNNING;
+            SuggestionJobStatus status;
+            try {
+                this.job.result = movieSuggestionService.suggestInBackground(this.userPreferences, this.mode);
+                status = SuggestionJobStatus.DONE;
+            } catch (RuntimeException e) {
+                this.job.error = e.getMessage();
+                status = SuggestionJobStatus.FAILED;
+            }
+            this.job.completedAt = clock.instant();
+            this.job.status = status;
+        }
+
+        // Mayor prioridad primero; a igual prioridad, en orden de llegada
+        @Override
+        public int compareTo(Task other) {
+            int byPriority = Integer.compare(other.job.priority, this.job.priority);
+            return byPriority != 0 ? byPriority : Long.compare(this.sequence, other.sequence);
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final int priority;
+        private final Instant submittedAt;
+        private volatile SuggestionJobStatus status = SuggestionJobStatus.PENDING;
+        private volatile String result;
+        private volatile String error;
+        private volatile Instant completedAt;
+
+        private Job(String id, int priority, Instant submittedAt) {
+            this.id = id;
+            this.priority = priority;
+            this.submittedAt = submittedAt;
+        }
+
+        // Solo expiran los terminados: un trabajo en cola o en curso siempre se puede consultar
+        boolean isExpired(Instant now, Duration ttl) {
+            Instant completed = this.completedAt;
+            return completed != null && completed.plus(ttl).isBefore(now);
+        }
+
+        SuggestionJobDto toDto() {
+            return new SuggestionJobDto(this.id, this.status, this.priority, this.result, this.error, this.submittedAt, this.completedAt);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.SuggestionMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Decide de donde salen las sugerencias: del modelo de IA, del recomendador local o de ambos,
+ * usando el local cuando el modelo no responde a tiempo, falla o tiene el circuito abierto.
+ */
+@Service
+public class MovieSuggestionService {
+    static final String AI_UNAVAILABLE = "El servicio de sugerencias no esta disponible en este momento, intenta de nuevo en unos minutos.";
+
+    private final ResilientAiService resilientAiService;
+    private final LocalMovieRecommender localMovieRecommender;
+    private final SuggestionMode defaultMode;
+
+    public MovieSuggestionService(ResilientAiService resilientAiService, LocalMovieRecommender localMovieRecommender,
+                                  @Value("${platzi-play.suggestions.mode:AUTO}") SuggestionMode defaultMode) {
+        this.resilientAiService = resilientAiService;
+        this.localMovieRecommender = localMovieRecommender;
+        this.defaultMode = defaultMode;
+    }
+
+    public String suggest(String userPreferences, SuggestionMode mode) {
+        return this.suggest(userPreferences, mode, false);
+    }
+
+    /**
+     * Para trabajos en segundo plano: un unico intento al modelo y no vuelve hasta que la llamada
+     * al proveedor termino, asi cada hilo del llamador tiene como mucho una llamada en curso.
+     */
+    public String suggestInBackground(String userPreferences, SuggestionMode mode) {
+        return this.suggest(userPreferences, mode, true);
+    }
+
+    private String suggest(String userPreferences, SuggestionMode mode, boolean background) {
+        return switch (mode == null ? this.defaultMode : mode) {
+            case AI -> this.askModel(userPreferences, () -> AI_UNAVAILABLE, background);
+            case LOCAL -> this.localMovieRecommender.recommend(userPreferences);
+            case AUTO -> this.askModel(userPreferences, () -> this.localMovieRecommender.recommend(userPreferences), background);
+        };
+    }
+
+    private String askModel(String userPreferences, Supplier<String> degraded, boolean background) {
+        return background
+                ? this.resilientAiService.generateMoviesSuggestionAndAwaitProvider(userPreferences, degraded)
+                : this.resilientAiService.generateMoviesSuggestion(userPreferences, degraded);
+    }
+}
@@ -0,0 +1,26 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.repository.ReactiveMovieRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveMovieService {
+    private final ReactiveMovieRepository reactiveMovieRepository;
+
+    public ReactiveMovieService(ReactiveMovieRepository reactiveMovieRepository) {
+        this.reactiveMovieRepository = reactiveMovieRepository;
+    }
+
+    public Flux<MovieDto> getAll() {
+        return this.reactiveMovieRepository.getAll();
+    }
+
+    public Mono<MovieDto> getById(long id) {
+        return this.reactiveMovieRepository.getById(id);
+    }
+}
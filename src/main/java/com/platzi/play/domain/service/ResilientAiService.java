@@ -0,0 +1,228 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.resilience.AiResilienceProperties;
+import com.platzi.play.domain.resilience.CircuitBreaker;
+import com.platzi.play.domain.resilience.LatencyWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envuelve las llamadas a {@link PlatziPlayAiService} con un plazo por operacion, un segundo intento
+ * opcional cuando el primero tarda mas que el p95 observado y un circuit breaker compartido. Si el
+ * modelo falla, no responde a tiempo o el circuito esta abierto se devuelve la respuesta degradada
+ * en lugar de dejar el hilo de la peticion esperando al proveedor. Los intentos que siguen corriendo
+ * al vencer el plazo se interrumpen.
+ */
+@Service
+@EnableConfigurationProperties(AiResilienceProperties.class)
+public class ResilientAiService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ResilientAiService.class);
+    private static final String GREETING = "greeting";
+    private static final String SUGGESTION = "suggestion";
+
+    private final PlatziPlayAiService aiService;
+    private final AiResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyWindow latencies = new LatencyWindow(128);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ResilientAiService(PlatziPlayAiService aiService, AiResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        AiResilienceProperties.Breaker breaker = properties.breaker();
+        this.circuitBreaker = new CircuitBreaker(breaker.windowSize(), breaker.minimumCalls(), breaker.failureRateThreshold(), breaker.openDuration());
+
+        Gauge.builder("platzi_play.ai.breaker.state", this.circuitBreaker, cb -> cb.state().ordinal())
+                .description("0 cerrado, 1 abierto, 2 semiabierto")
+                .register(meterRegistry);
+        Gauge.builder("platzi_play.ai.timeout", properties.timeouts(), timeouts -> timeouts.greeting().toMillis())
+                .tag("operation", GREETING).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("platzi_play.ai.timeout", properties.timeouts(), timeouts -> timeouts.suggestion().toMillis())
+                .tag("operation", SUGGESTION).baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    public String generateGreeting(String platform) {
+        return this.call(GREETING, this.properties.timeouts().greeting(),
+                () -> this.aiService.generateGreeting(platform),
+                () -> "¡Bienvenido a " + platform + "! Nunca pares de aprender... ni de ver buen cine.", false);
+    }
+
+    public String generateMoviesSuggestion(String userPreferences, Supplier<String> degraded) {
+        return this.call(SUGGESTION, this.properties.timeouts().suggestion(),
+                () -> this.aiService.generateMoviesSuggestion(userPreferences), degraded, false);
+    }
+
+    /**
+     * Igual que {@link #generateMoviesSuggestion(String, Supplier)} pero sin segundo intento y sin volver
+     * hasta que la llamada al proveedor termino de verdad, aunque el plazo ya haya vencido. Para trabajos
+     * en segundo plano que limitan las llamadas simultaneas con su numero de hilos.
+     */
+    public String generateMoviesSuggestionAndAwaitProvider(String userPreferences, Supplier<String> degraded) {
+        return this.call(SUGGESTION, this.properties.timeouts().suggestion(),
+                () -> this.aiService.generateMoviesSuggestion(userPreferences), degraded, true);
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return this.circuitBreaker.state();
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private <T> T call(String operation, Duration timeout, Supplier<T> call, Supplier<T> degraded, boolean awaitProvider) {
+        if (!this.circuitBreaker.tryAcquire()) {
+            this.count(operation, "rejected");
+            return degraded.get();
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        List<Attempt<T>> attempts = new ArrayList<>(2);
+        Attempt<T> first = new Attempt<>(call);
+        attempts.add(first);
+        CompletableFuture<T> result = first.result;
+        try {
+            long hedgeDelay = awaitProvider ? 0 : this.hedgeDelayNanos();
+            if (hedgeDelay > 0 && hedgeDelay < timeout.toNanos()) {
+                try {
+                    return this.succeeded(operation, start, first.result.get(hedgeDelay, TimeUnit.NANOSECONDS));
+                } catch (TimeoutException slow) {
+                    // El primer intento sigue corriendo; gana el que responda primero
+                    this.count(operation, "hedged");
+                    Attempt<T> second = new Attempt<>(call);
+                    attempts.add(second);
+                    result = firstSuccessful(first.result, second.result);
+                }
+            }
+
+            return this.succeeded(operation, start, result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            this.failed(operation, "timeout");
+            log.warn("El modelo no respondio la operacion {} en {}", operation, timeout);
+        } catch (ExecutionException e) {
+            this.failed(operation, "error");
+            log.warn("El modelo fallo en la operacion {}", operation, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.failed(operation, "error");
+        } finally {
+            // Se interrumpe lo que siga corriendo: el intento que perdio o los que vencieron el plazo
+            attempts.forEach(Attempt::cancel);
+            if (awaitProvider) {
+                attempts.forEach(Attempt::awaitFinished);
+            }
+        }
+        return degraded.get();
+    }
+
+    private <T> T succeeded(String operation, long start, T value) {
+        long elapsed = System.nanoTime() - start;
+        this.circuitBreaker.onSuccess();
+        this.latencies.record(elapsed);
+        Timer.builder("platzi_play.ai.latency").tag("operation", operation).register(this.meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        this.count(operation, "success");
+        return value;
+    }
+
+    private void failed(String operation, String outcome) {
+        this.circuitBreaker.onFailure();
+        this.count(operation, outcome);
+    }
+
+    private void count(String operation, String outcome) {
+        Counter.builder("platzi_play.ai.calls").tag("operation", operation).tag("outcome", outcome)
+                .register(this.meterRegistry).increment();
+    }
+
+    private long hedgeDelayNanos() {
+        AiResilienceProperties.Hedge hedge = this.properties.hedge();
+        if (!hedge.enabled()) return 0;
+
+        long minDelay = hedge.minDelay().toNanos();
+        if (this.latencies.size() < hedge.minSamples()) return minDelay;
+        return Math.max(minDelay, this.latencies.percentile(hedge.percentile()));
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    /**
+     * Una llamada al proveedor en su propio hilo virtual. A diferencia de CompletableFuture.cancel,
+     * cancel() interrumpe el hilo, y awaitFinished() espera a que la llamada haya terminado de verdad.
+     */
+    private final class Attempt<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final Future<?> task;
+
+        private Attempt(Supplier<T> call) {
+            this.task = executor.submit(() -> {
+                if (!this.claimed.compareAndSet(false, true)) return;
+                try {
+                    this.result.complete(call.get());
+                } catch (RuntimeException e) {
+                    this.result.completeExceptionally(e);
+                } finally {
+                    this.finished.countDown();
+                }
+            });
+        }
+
+        void cancel() {
+            // Si todavia no habia empezado ya no empezara, y no hay nada que esperar
+            if (this.claimed.compareAndSet(false, true)) {
+                this.finished.countDown();
+            }
+            this.task.cancel(true);
+        }
+
+        void awaitFinished() {
+            try {
+                this.finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.IdempotencyRecord;
+import com.platzi.play.domain.repository.IdempotencyRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Copia en base de datos de las respuestas idempotentes, para que un reintento que cae en otro nodo
+ * o despues de un reinicio tambien reciba la respuesta original. La clave se reserva antes de ejecutar
+ * el pedido con una fila sin respuesta (respuesta vacia), asi un reintento en otro nodo no lo repite.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "platzi-play.idempotency.persistence", name = "enabled", havingValue = "true")
+public class IdempotencyJdbcRepository implements IdempotencyRepository {
+    private static final byte[] PENDING = new byte[0];
+
+    private static final String FIND = """
+            SELECT clave, huella, respuesta, expira FROM platzi_play_idempotencia
+            WHERE clave = ? AND expira > ?
+            """;
+
+    // Solo una reserva gana; una fila ya vencida se reemplaza
+    private static final String CLAIM = """
+            INSERT INTO platzi_play_idempotencia (clave, huella, respuesta, expira)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (clave) DO UPDATE
+            SET huella = EXCLUDED.huella, respuesta = EXCLUDED.respuesta, expira = EXCLUDED.expira
+            WHERE platzi_play_idempotencia.expira <= ?
+            """;
+
+    // Tambien inserta, por si la reserva no se pudo hacer con la base caida y ya volvio
+    private static final String COMPLETE = """
+            INSERT INTO platzi_play_idempotencia (clave, huella, respuesta, expira)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (clave) DO UPDATE
+            SET respuesta = EXCLUDED.respuesta, expira = EXCLUDED.expira
+            WHERE platzi_play_idempotencia.huella = EXCLUDED.huella AND length(platzi_play_idempotencia.respuesta) = 0
+            """;
+
+    private static final String RELEASE = "DELETE FROM platzi_play_idempotencia WHERE clave = ? AND length(respuesta) = 0";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM platzi_play_idempotencia WHERE expira <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, Instant now, Instant claimExpiresAt) {
+        return this.jdbcTemplate.update(CLAIM, key, fingerprint, PENDING, Timestamp.from(claimExpiresAt), Timestamp.from(now)) > 0;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key, Instant now) {
+        return this.jdbcTemplate.query(FIND, (resultSet, rowNum) -> {
+            byte[] response = resultSet.getBytes("respuesta");
+            return new IdempotencyRecord(
+                    resultSet.getString("clave"),
+                    resultSet.getString("huella"),
+                    response == null || response.length == 0 ? null : response,
+                    resultSet.getTimestamp("expira").toInstant()
+            );
+        }, key, Timestamp.from(now)).stream().findFirst();
+    }
+
+    @Override
+    public void complete(IdempotencyRecord record) {
+        this.jdbcTemplate.update(COMPLETE, record.key(), record.fingerprint(), record.response(), Timestamp.from(record.expiresAt()));
+    }
+
+    @Override
+    public void release(String key) {
+        this.jdbcTemplate.update(RELEASE, key);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return this.jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(now));
+    }
+}
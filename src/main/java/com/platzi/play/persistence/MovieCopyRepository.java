@@ -0,0 +1,229 @@
+package com.platzi.play.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.exception.MovieIngestException;
+import com.platzi.play.domain.repository.MovieBulkRepository;
+import com.platzi.play.persistence.mapper.GenreMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Carga masiva de peliculas: el archivo se envia con COPY a una tabla temporal y luego
+ * se pasa a platzi_play_peliculas con un solo INSERT ... SELECT que respeta el titulo unico.
+ * El CSV debe traer las columnas titulo,duracion,genero,fecha_estreno,clasificacion (cabecera opcional).
+ * Cada fila se valida con las mismas reglas que POST /movies antes de enviarla; las que no pasan
+ * se cuentan como rechazadas y no detienen la carga.
+ */
+@Repository
+public class MovieCopyRepository implements MovieBulkRepository {
+    private static final Logger log = LoggerFactory.getLogger(MovieCopyRepository.class);
+
+    private static final int PROGRESS_EVERY_ROWS = 50_000;
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final int LOGGED_REJECTIONS = 10;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE platzi_play_peliculas_staging (
+                titulo VARCHAR(150),
+                duracion INTEGER,
+                genero VARCHAR(40),
+                fecha_estreno DATE,
+                clasificacion NUMERIC(3, 2)
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING = """
+            COPY platzi_play_peliculas_staging (titulo, duracion, genero, fecha_estreno, clasificacion)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // Las filas ya llegan validadas y con el genero en el formato de la base. Las fechas se toman al final y no
+    // al inicio de la transaccion (now()), que en una carga larga quedaria muy por detras del commit
+    private static final String MERGE = """
+            INSERT INTO platzi_play_peliculas (titulo, duracion, genero, fecha_estreno, clasificacion, estado, fecha_creacion, fecha_actualizacion)
+            SELECT DISTINCT ON (titulo) titulo, duracion, genero, fecha_estreno, clasificacion, 'D', clock_timestamp(), clock_timestamp()
+            FROM platzi_play_peliculas_staging
+            ORDER BY titulo
+            ON CONFLICT (titulo) DO NOTHING
+            """;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    public MovieCopyRepository(DataSource dataSource, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, Validator validator) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+    }
+
+    @Override
+    public IngestReportDto ingest(Reader reader, IngestFormat format) {
+        long start = System.nanoTime();
+        CopyResult copied;
+        long rowsInserted;
+
+        try (Connection connection = this.dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+
+                copied = this.copy(connection.unwrap(PGConnection.class), reader, format, start);
+                rowsInserted = statement.executeUpdate(MERGE);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new MovieIngestException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new MovieIngestException("error leyendo el archivo", e);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        // Las omitidas son filas validas cuyo titulo ya existia (o se repetia en el archivo)
+        IngestReportDto report = new IngestReportDto(copied.rowsRead(), rowsInserted, copied.rowsRejected(),
+                copied.rowsRead() - copied.rowsRejected() - rowsInserted,
+                elapsedNanos / 1_000_000, rowsPerSecond(copied.rowsRead(), elapsedNanos));
+        log.info("Carga de peliculas terminada: {} filas leidas, {} insertadas, {} rechazadas, {} omitidas en {} ms ({} filas/s)",
+                report.rowsRead(), report.rowsInserted(), report.rowsRejected(), report.rowsSkipped(), report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+
+        if (rowsInserted > 0) {
+            this.eventPublisher.publishEvent(new MovieCatalogReloadedEvent(rowsInserted));
+        }
+        return report;
+    }
+
+    private CopyResult copy(PGConnection connection, Reader reader, IngestFormat format, long start) throws SQLException, IOException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            BufferedReader lines = new BufferedReader(reader);
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+            long rows = 0;
+            long rejected = 0;
+            boolean firstLine = true;
+
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (firstLine && format == IngestFormat.CSV && isCsvHeader(line)) {
+                    firstLine = false;
+                    continue;
+                }
+                firstLine = false;
+
+                rows++;
+                String problem = this.appendRow(buffer, line, format);
+                // Solo se registran las primeras; el total queda en el reporte
+                if (problem != null && ++rejected <= LOGGED_REJECTIONS) {
+                    log.warn("Carga de peliculas: fila {} rechazada, {}", rows, problem);
+                }
+
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    write(copyIn, buffer);
+                }
+                if (rows % PROGRESS_EVERY_ROWS == 0) {
+                    log.info("Carga de peliculas: {} filas enviadas ({} filas/s)", rows, Math.round(rowsPerSecond(rows, System.nanoTime() - start)));
+                }
+            }
+
+            write(copyIn, buffer);
+            copyIn.endCopy();
+            return new CopyResult(rows, rejected);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Agrega la fila al buffer si es valida.
+     * @return el motivo del rechazo, o null si la fila se agrego
+     */
+    private String appendRow(StringBuilder buffer, String line, IngestFormat format) {
+        MovieDto movie;
+        try {
+            movie = format == IngestFormat.CSV ? MovieCsvRowParser.parse(line) : this.parseNdjson(line);
+        } catch (JsonProcessingException e) {
+            return "no es un JSON valido de pelicula";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+
+        Set<ConstraintViolation<MovieDto>> violations = this.validator.validate(movie);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        // La columna no admite nulos y MovieDto no lo exige
+        if (movie.duration() == null) {
+            return "la duracion es obligatoria";
+        }
+
+        buffer.append(csvText(movie.title())).append(',')
+                .append(csvValue(movie.duration())).append(',')
+                .append(csvText(GenreMapper.genreToString(movie.genre()))).append(',')
+                .append(csvValue(movie.releaseDate())).append(',')
+                .append(csvValue(movie.rating())).append('\n');
+        return null;
+    }
+
+    // El estado lo fija la carga, como en POST /movies no se toma del archivo
+    private MovieDto parseNdjson(String line) throws JsonProcessingException {
+        MovieDto movie = this.objectMapper.readValue(line, MovieDto.class);
+        return new MovieDto(movie.title(), movie.duration(), movie.genre(), movie.releaseDate(), movie.rating(), "D");
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) return;
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String firstColumn = line.split(",", 2)[0].trim().replace("\"", "");
+        return firstColumn.equalsIgnoreCase("titulo") || firstColumn.equalsIgnoreCase("title");
+    }
+
+    private static String csvText(String value) {
+        if (value == null) return "";
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String csvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static double rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? rows : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    private record CopyResult(long rowsRead, long rowsRejected) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.persistence.mapper.GenreMapper;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convierte una fila CSV de la carga masiva (titulo,duracion,genero,fecha_estreno,clasificacion) en un MovieDto.
+ * Las filas mal formadas lanzan IllegalArgumentException con el motivo; las reglas de negocio
+ * (rangos, fecha, titulo) las revisa despues el mismo Validator que usa POST /movies.
+ */
+final class MovieCsvRowParser {
+    private static final int COLUMNS = 5;
+
+    private MovieCsvRowParser() {
+    }
+
+    static MovieDto parse(String line) {
+        List<String> columns = split(line);
+        if (columns.size() != COLUMNS) {
+            throw new IllegalArgumentException("se esperaban " + COLUMNS + " columnas y llegaron " + columns.size());
+        }
+
+        return new MovieDto(
+                columns.get(0),
+                columns.get(1) == null ? null : Integer.valueOf(columns.get(1).trim()),
+                parseGenre(columns.get(2)),
+                parseDate(columns.get(3)),
+                columns.get(4) == null ? null : new BigDecimal(columns.get(4).trim()).doubleValue(),
+                "D"
+        );
+    }
+
+    // LocalDate.parse lanza DateTimeException, que no es IllegalArgumentException y detendria la carga
+    static LocalDate parseDate(String value) {
+        if (value == null) return null;
+
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("fecha invalida: " + value);
+        }
+    }
+
+    // Acepta el nombre de la API (SCI_FI) o el de la base (CIENCIA_FICCION); cualquier otro valor es un error
+    static Genre parseGenre(String value) {
+        if (value == null) return null;
+
+        String genre = value.trim().toUpperCase();
+        Genre fromDatabase = GenreMapper.stringToGenre(genre);
+        if (fromDatabase != null) return fromDatabase;
+
+        try {
+            return Genre.valueOf(genre);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("genero desconocido: " + value);
+        }
+    }
+
+    // Columnas separadas por coma, con comillas dobles opcionales y "" como comilla escapada; vacio es null
+    static List<String> split(String line) {
+        List<String> columns = new ArrayList<>(COLUMNS);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    current.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                columns.add(column(current, wasQuoted));
+                current.setLength(0);
+                wasQuoted = false;
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("comillas sin cerrar");
+        }
+        columns.add(column(current, wasQuoted));
+        return columns;
+    }
+
+    private static String column(StringBuilder value, boolean quoted) {
+        if (!quoted && value.toString().isBlank()) return null;
+        return value.toString();
+    }
+}
@@ -1,43 +1,125 @@
 package com.platzi.play.persistence;
 
+import com.platzi.play.domain.MovieField;
+import com.platzi.play.domain.MovieSyncToken;
+import com.platzi.play.domain.dto.MovieChangeDto;
+import com.platzi.play.domain.dto.MovieChangesDto;
 import com.platzi.play.domain.dto.MovieDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.event.MovieChangedEvent;
 import com.platzi.play.domain.exception.MovieAlreadyExistsException;
 import com.platzi.play.domain.exception.MovieNotFound;
 import com.platzi.play.domain.repository.MovieRepository;
+import com.platzi.play.persistence.cache.MissingMovieCache;
 import com.platzi.play.persistence.crud.CrudMovieEntity;
+import com.platzi.play.persistence.crud.CrudMovieTombstoneEntity;
 import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.MovieTombstoneEntity;
+import com.platzi.play.persistence.mapper.GenreMapper;
 import com.platzi.play.persistence.mapper.MovieMapper;
+import com.platzi.play.persistence.mapper.StateMapper;
+import com.platzi.play.persistence.routing.ReadYourWritesContext;
+import com.platzi.play.persistence.routing.ReplicaRoutingDataSource;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public class MovieEntityRepository implements MovieRepository {
     private final CrudMovieEntity crudMovieEntity;
+    private final CrudMovieTombstoneEntity crudMovieTombstoneEntity;
     private final MovieMapper movieMapper;
+    private final MissingMovieCache missingMovieCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration changesSafetyLag;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
 
-    public MovieEntityRepository(CrudMovieEntity crudMovieEntity, MovieMapper movieMapper) {
+    public MovieEntityRepository(CrudMovieEntity crudMovieEntity, CrudMovieTombstoneEntity crudMovieTombstoneEntity, MovieMapper movieMapper,
+                                 MissingMovieCache missingMovieCache, ApplicationEventPublisher eventPublisher,
+                                 @Value("${platzi-play.movies.changes.safety-lag:5s}") Duration changesSafetyLag,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
         this.crudMovieEntity = crudMovieEntity;
+        this.crudMovieTombstoneEntity = crudMovieTombstoneEntity;
         this.movieMapper = movieMapper;
+        this.missingMovieCache = missingMovieCache;
+        this.eventPublisher = eventPublisher;
+        this.changesSafetyLag = changesSafetyLag;
+        this.replicaRouting = replicaRouting;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<MovieDto> getAll() {
         // Only return movies marked as 'D' (disponible)
         return this.movieMapper.toDto(this.crudMovieEntity.findAllByEstado("D"));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAll(Set<MovieField> fields) {
+        List<String> attributes = fields.stream().map(MovieEntityRepository::attributeOf).toList();
+        List<Tuple> rows = this.crudMovieEntity.findAttributesByEstado("D", attributes);
+
+        List<Map<String, Object>> movies = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> movie = new LinkedHashMap<>();
+            for (MovieField field : fields) {
+                movie.put(field.jsonName(), toDtoValue(field, row.get(attributeOf(field))));
+            }
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public MovieDto getById(long id) {
-        MovieEntity movieEntity = this.crudMovieEntity.findById(id).orElseThrow(MovieNotFound::new);
+        MovieEntity movieEntity = this.findExisting(id);
         // If movie not found or not in 'D' (disponible) state, return null (will map to 404 at controller)
         return this.movieMapper.toDto(movieEntity);
     }
 
+    // Reconstruye el indice, a veces justo despues de una carga masiva: se lee del primario
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, MovieDto> getAllById() {
+        List<MovieEntity> entities = ReadYourWritesContext.onPrimary(() -> this.crudMovieEntity.findAllByEstado("D"));
+
+        Map<Long, MovieDto> movies = new LinkedHashMap<>(entities.size() * 2);
+        for (MovieEntity entity : entities) {
+            movies.put(entity.getId(), this.movieMapper.toDto(entity));
+        }
+        return movies;
+    }
+
     @Override
+    @Transactional(readOnly = true)
+    public Optional<MovieDto> findAvailableById(long id) {
+        // Sin pasar por el cache de inexistentes y desde el primario: se usa justo despues de un cambio confirmado
+        return ReadYourWritesContext.onPrimary(() -> this.crudMovieEntity.findById(id))
+                .filter(movieEntity -> "D".equals(movieEntity.getEstado()))
+                .map(this.movieMapper::toDto);
+    }
+
+    // Transaccion de escritura explicita: la busqueda previa por titulo no debe ir a una replica
+    @Override
+    @Transactional
     public MovieDto save(MovieDto movieDto) {
         if (this.crudMovieEntity.findFirstByTitulo(movieDto.title()) != null) {
             throw new MovieAlreadyExistsException(movieDto.title());
@@ -46,13 +128,17 @@ public class MovieEntityRepository implements MovieRepository {
         MovieEntity movieEntity = this.movieMapper.toEntity(movieDto);
         movieEntity.setEstado("D");
 
-        return this.movieMapper.toDto(this.crudMovieEntity.save(movieEntity));
+        MovieEntity savedEntity = this.crudMovieEntity.save(movieEntity);
+        this.eventPublisher.publishEvent(new MovieChangedEvent(savedEntity.getId(), MovieChangedEvent.Operation.CREATED));
+
+        return this.movieMapper.toDto(savedEntity);
     }
 
     @Override
+    @Transactional
     public MovieDto update(long id, UpdateMovieDto updateMovieDto) {
 
-        MovieEntity movieEntity = this.crudMovieEntity.findById(id).orElseThrow(MovieNotFound::new);
+        MovieEntity movieEntity = this.findExisting(id);
         // Acá fue para manejar que no se repitiera el título de la película
 
         if (!movieEntity.getTitulo().equals(updateMovieDto.title())) {
@@ -64,14 +150,115 @@ public class MovieEntityRepository implements MovieRepository {
         }
 
         this.movieMapper.updateEntiyFromDto(updateMovieDto, movieEntity);
+        MovieEntity savedEntity = this.crudMovieEntity.save(movieEntity);
+        this.eventPublisher.publishEvent(new MovieChangedEvent(id, MovieChangedEvent.Operation.UPDATED));
 
-        return this.movieMapper.toDto(this.crudMovieEntity.save(movieEntity));
+        return this.movieMapper.toDto(savedEntity);
     }
 
     @Override
+    @Transactional
     public void delete(long id) {
-        var movieEntity = crudMovieEntity.findById(id).orElseThrow(MovieNotFound::new);
+        var movieEntity = this.findExisting(id);
 
         this.crudMovieEntity.delete(movieEntity);
+
+        // El borrado queda registrado para que la sincronizacion incremental lo informe
+        MovieTombstoneEntity tombstone = new MovieTombstoneEntity();
+        tombstone.setPeliculaId(id);
+        this.crudMovieTombstoneEntity.save(tombstone);
+        this.eventPublisher.publishEvent(new MovieChangedEvent(id, MovieChangedEvent.Operation.DELETED));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MovieChangesDto getChangesSince(MovieSyncToken token, int limit) {
+        // Las fechas son el inicio de la transaccion que escribio, no su commit: una transaccion que confirma
+        // tarde puede traer una fecha anterior a la ya entregada. Solo se entregan filas mas viejas que el
+        // margen, asi el token nunca pasa de un punto en el que todavia puede aparecer algo
+        Instant horizon = Instant.EPOCH.plus(this.crudMovieEntity.currentTimestampMicros(), ChronoUnit.MICROS).minus(this.changesSafetyLag);
+        List<MovieEntity> updated = this.crudMovieEntity.findChangedSince(token.updatedAt(), token.updatedId(), horizon, Limit.of(limit + 1));
+        List<MovieTombstoneEntity> deleted = this.crudMovieTombstoneEntity.findDeletedSince(token.deletedAt(), token.deletedId(), horizon, Limit.of(limit + 1));
+
+        // Mezcla ambas listas en orden de tiempo y avanza cada posicion del token solo por lo entregado
+        List<MovieChangeDto> changes = new ArrayList<>(Math.min(limit, updated.size() + deleted.size()));
+        MovieSyncToken next = token;
+        int u = 0;
+        int d = 0;
+        while (changes.size() < limit && (u < updated.size() || d < deleted.size())) {
+            boolean takeUpdate = d >= deleted.size()
+                    || (u < updated.size() && !updated.get(u).getFechaActualizacion().isAfter(deleted.get(d).getFechaEliminacion()));
+
+            if (takeUpdate) {
+                MovieEntity movie = updated.get(u++);
+                changes.add(this.toChange(movie, token.updatedAt()));
+                next = new MovieSyncToken(movie.getFechaActualizacion(), movie.getId(), next.deletedAt(), next.deletedId());
+            } else {
+                MovieTombstoneEntity tombstone = deleted.get(d++);
+                changes.add(new MovieChangeDto(tombstone.getPeliculaId(), MovieChangedEvent.Operation.DELETED, tombstone.getFechaEliminacion(), null));
+                next = new MovieSyncToken(next.updatedAt(), next.updatedId(), tombstone.getFechaEliminacion(), tombstone.getPeliculaId());
+            }
+        }
+
+        return new MovieChangesDto(changes, next.encode(), u < updated.size() || d < deleted.size());
+    }
+
+    private MovieChangeDto toChange(MovieEntity movie, Instant since) {
+        // Una pelicula que deja de estar disponible desaparece del listado, para el cliente es un borrado
+        if (!"D".equals(movie.getEstado())) {
+            return new MovieChangeDto(movie.getId(), MovieChangedEvent.Operation.DELETED, movie.getFechaActualizacion(), null);
+        }
+
+        MovieChangedEvent.Operation operation = movie.getFechaCreacion().isAfter(since)
+                ? MovieChangedEvent.Operation.CREATED
+                : MovieChangedEvent.Operation.UPDATED;
+        return new MovieChangeDto(movie.getId(), operation, movie.getFechaActualizacion(), this.movieMapper.toDto(movie));
+    }
+
+    private MovieEntity findExisting(long id) {
+        // Los ids que ya sabemos que no existen se responden sin consultar la base de datos
+        if (this.missingMovieCache.contains(id)) {
+            throw MovieNotFound.INSTANCE;
+        }
+
+        long epoch = this.missingMovieCache.epoch();
+        return this.crudMovieEntity.findById(id).orElseThrow(() -> {
+            // Una replica atrasada puede no tener todavia un id recien creado; solo el primario confirma que no existe
+            if (!this.readsFromReplica()) {
+                this.missingMovieCache.add(id, epoch);
+            }
+            return MovieNotFound.INSTANCE;
+        });
+    }
+
+    private boolean readsFromReplica() {
+        ReplicaRoutingDataSource routing = this.replicaRouting.getIfAvailable();
+        return routing != null && routing.routesToReplica();
+    }
+
+    private static String attributeOf(MovieField field) {
+        return switch (field) {
+            case TITLE -> "titulo";
+            case DURATION -> "duracion";
+            case GENRE -> "genero";
+            case RELEASE_DATE -> "fechaEstreno";
+            case RATING -> "clasificacion";
+            case STATE -> "estado";
+        };
+    }
+
+    // Aplica las mismas conversiones que MovieMapper pero solo sobre las columnas seleccionadas
+    private static Object toDtoValue(MovieField field, Object value) {
+        if (value == null) return null;
+
+        return switch (field) {
+            case GENRE -> GenreMapper.stringToGenre((String) value);
+            case RATING -> ((BigDecimal) value).doubleValue();
+            case STATE -> {
+                Boolean state = StateMapper.stateToBoolean((String) value);
+                yield state == null ? null : state.toString();
+            }
+            default -> value;
+        };
     }
 }
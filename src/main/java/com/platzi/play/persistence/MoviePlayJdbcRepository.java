@@ -0,0 +1,57 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.MoviePlayDelta;
+import com.platzi.play.domain.repository.MoviePlayRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class MoviePlayJdbcRepository implements MoviePlayRepository {
+    private static final String SELECT_COUNTS = """
+            SELECT r.pelicula_id, r.cantidad
+            FROM platzi_play_reproducciones r
+            JOIN platzi_play_peliculas p ON p.id = r.pelicula_id
+            """;
+
+    private static final String UPSERT_COUNTS = """
+            INSERT INTO platzi_play_reproducciones (pelicula_id, cantidad)
+            SELECT ?, ? WHERE EXISTS (SELECT 1 FROM platzi_play_peliculas WHERE id = ?)
+            ON CONFLICT (pelicula_id) DO UPDATE
+            SET cantidad = platzi_play_reproducciones.cantidad + excluded.cantidad
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MoviePlayJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getPlayCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        this.jdbcTemplate.query(SELECT_COUNTS, row -> {
+            counts.put(row.getLong(1), row.getLong(2));
+        });
+        return counts;
+    }
+
+    @Override
+    @Transactional
+    public void addPlays(Collection<MoviePlayDelta> deltas) {
+        if (deltas.isEmpty()) return;
+
+        List<MoviePlayDelta> batch = List.copyOf(deltas);
+        this.jdbcTemplate.batchUpdate(UPSERT_COUNTS, batch, batch.size(), (statement, delta) -> {
+            statement.setLong(1, delta.movieId());
+            statement.setLong(2, delta.plays());
+            statement.setLong(3, delta.movieId());
+        });
+    }
+}
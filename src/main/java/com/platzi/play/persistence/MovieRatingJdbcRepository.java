@@ -0,0 +1,79 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.MovieRatingDelta;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import com.platzi.play.domain.repository.MovieRatingRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vuelca los votos acumulados en dos sentencias por lote: un upsert por lotes sobre los totales
+ * y un unico UPDATE que recalcula la clasificacion de todas las peliculas afectadas.
+ * Solo se tocan las peliculas cuyo promedio redondeado cambio, y sus nuevos valores se publican
+ * en un unico evento para que los caches los apliquen sin volver a leer cada fila.
+ */
+@Repository
+public class MovieRatingJdbcRepository implements MovieRatingRepository {
+    private static final String UPSERT_TOTALS = """
+            INSERT INTO platzi_play_calificaciones (pelicula_id, suma, cantidad)
+            SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM platzi_play_peliculas WHERE id = ?)
+            ON CONFLICT (pelicula_id) DO UPDATE
+            SET suma = platzi_play_calificaciones.suma + excluded.suma,
+                cantidad = platzi_play_calificaciones.cantidad + excluded.cantidad
+            """;
+
+    // Tambien avanza fecha_actualizacion para que la sincronizacion incremental vea el cambio,
+    // pero solo si la clasificacion visible cambio: un voto que no mueve el promedio no obliga a redescargar
+    private static final String UPDATE_AVERAGES = """
+            UPDATE platzi_play_peliculas p
+            SET clasificacion = round(c.suma::numeric / c.cantidad, 2), fecha_actualizacion = now()
+            FROM platzi_play_calificaciones c
+            WHERE c.pelicula_id = p.id AND p.id = ANY (?)
+              AND p.clasificacion IS DISTINCT FROM round(c.suma::numeric / c.cantidad, 2)
+            RETURNING p.id, p.clasificacion
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MovieRatingJdbcRepository(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public void addRatings(Collection<MovieRatingDelta> deltas) {
+        if (deltas.isEmpty()) return;
+
+        List<MovieRatingDelta> batch = List.copyOf(deltas);
+        this.jdbcTemplate.batchUpdate(UPSERT_TOTALS, batch, batch.size(), (statement, delta) -> {
+            statement.setLong(1, delta.movieId());
+            statement.setLong(2, delta.sum());
+            statement.setLong(3, delta.count());
+            statement.setLong(4, delta.movieId());
+        });
+
+        Long[] ids = batch.stream().map(MovieRatingDelta::movieId).toArray(Long[]::new);
+        Map<Long, Double> ratings = new HashMap<>();
+        this.jdbcTemplate.query(connection -> {
+            Array idArray = connection.createArrayOf("bigint", ids);
+            var statement = connection.prepareStatement(UPDATE_AVERAGES);
+            statement.setArray(1, idArray);
+            return statement;
+        }, (RowCallbackHandler) row -> ratings.put(row.getLong("id"), row.getBigDecimal("clasificacion").doubleValue()));
+
+        if (!ratings.isEmpty()) {
+            this.eventPublisher.publishEvent(new MovieRatingsChangedEvent(Map.copyOf(ratings)));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.repository.ReactiveMovieRepository;
+import com.platzi.play.persistence.crud.ReactiveCrudMovieRecord;
+import com.platzi.play.persistence.mapper.MovieMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public class ReactiveMovieEntityRepository implements ReactiveMovieRepository {
+    private final ReactiveCrudMovieRecord reactiveCrudMovieRecord;
+    private final MovieMapper movieMapper;
+
+    public ReactiveMovieEntityRepository(ReactiveCrudMovieRecord reactiveCrudMovieRecord, MovieMapper movieMapper) {
+        this.reactiveCrudMovieRecord = reactiveCrudMovieRecord;
+        this.movieMapper = movieMapper;
+    }
+
+    @Override
+    public Flux<MovieDto> getAll() {
+        // Only return movies marked as 'D' (disponible)
+        return this.reactiveCrudMovieRecord.findAllByEstado("D").map(this.movieMapper::toDto);
+    }
+
+    @Override
+    public Mono<MovieDto> getById(long id) {
+        return this.reactiveCrudMovieRecord.findById(id)
+                .map(this.movieMapper::toDto)
+                .switchIfEmpty(Mono.error(MovieNotFound.INSTANCE));
+    }
+}
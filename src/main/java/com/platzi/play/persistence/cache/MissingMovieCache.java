@@ -0,0 +1,91 @@
+package com.platzi.play.persistence.cache;
+
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache acotado de identificadores que se sabe que no existen en base de datos.
+ * Es una tabla de acceso directo: cada id ocupa una sola posicion, asi que una
+ * colision simplemente reemplaza la entrada anterior y el tamaño nunca crece.
+ * Cada alta o limpieza avanza una epoca: quien consulto la base antes de ese cambio no puede
+ * dejar marcado como inexistente un id que ya se creo.
+ */
+@Component
+public class MissingMovieCache {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public MissingMovieCache(@Value("${platzi-play.movies.missing-cache.size:1024}") int size) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1) << 1);
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            this.slots.set(i, EMPTY);
+        }
+    }
+
+    public boolean contains(long id) {
+        return this.slots.get(indexOf(id)) == id;
+    }
+
+    // Se lee antes de consultar la base y se pasa a add(id, epoch) si la consulta no encuentra el id
+    public long epoch() {
+        return this.epoch.get();
+    }
+
+    public void add(long id) {
+        this.slots.set(indexOf(id), id);
+    }
+
+    /**
+     * Marca el id como inexistente solo si desde que se leyo la epoca no hubo altas ni limpiezas.
+     */
+    public void add(long id, long epoch) {
+        this.add(id);
+        // Un alta que avanzo la epoca en medio pudo quitar el id antes de que se agregara
+        if (this.epoch.get() != epoch) {
+            this.slots.compareAndSet(indexOf(id), id, EMPTY);
+        }
+    }
+
+    public void remove(long id) {
+        this.epoch.incrementAndGet();
+        this.slots.compareAndSet(indexOf(id), id, EMPTY);
+    }
+
+    // Despues del commit: si se quitara antes, una lectura que aun no ve el alta lo volveria a marcar
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        switch (event.operation()) {
+            case CREATED -> this.remove(event.movieId());
+            case DELETED -> this.add(event.movieId());
+            case UPDATED -> { }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(MovieCatalogReloadedEvent event) {
+        this.clear();
+    }
+
+    public void clear() {
+        this.epoch.incrementAndGet();
+        for (int i = 0; i < this.slots.length(); i++) {
+            this.slots.set(i, EMPTY);
+        }
+    }
+
+    private int indexOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & this.mask;
+    }
+}
@@ -1,12 +1,32 @@
 package com.platzi.play.persistence.crud;
 
 import com.platzi.play.persistence.entity.MovieEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+
+import java.time.Instant;
 import java.util.List;
 
-public interface CrudMovieEntity extends CrudRepository<MovieEntity, Long> {
+public interface CrudMovieEntity extends CrudRepository<MovieEntity, Long>, CrudMovieEntityProjection {
 
 	MovieEntity findFirstByTitulo(String titulo);
 	List<MovieEntity> findAllByEstado(String estado);
 
+	@Query("""
+			SELECT m FROM MovieEntity m
+			WHERE (m.fechaActualizacion > :since OR (m.fechaActualizacion = :since AND m.id > :afterId))
+			AND m.fechaActualizacion <= :until
+			ORDER BY m.fechaActualizacion, m.id
+			""")
+	List<MovieEntity> findChangedSince(Instant since, long afterId, Instant until, Limit limit);
+
+	// Reloj de la base en microsegundos; en una replica no pasa del ultimo commit ya aplicado
+	@Query(value = """
+			SELECT CAST(EXTRACT(EPOCH FROM CASE WHEN pg_is_in_recovery()
+			        THEN LEAST(clock_timestamp(), COALESCE(pg_last_xact_replay_timestamp(), to_timestamp(0)))
+			        ELSE clock_timestamp() END) * 1000000 AS BIGINT)
+			""", nativeQuery = true)
+	long currentTimestampMicros();
+
 }
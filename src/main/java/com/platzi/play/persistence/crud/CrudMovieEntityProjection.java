@@ -0,0 +1,13 @@
+package com.platzi.play.persistence.crud;
+
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CrudMovieEntityProjection {
+
+	// Selecciona solo los atributos pedidos; cada valor del Tuple usa el nombre del atributo como alias
+	List<Tuple> findAttributesByEstado(String estado, Collection<String> attributes);
+
+}
@@ -0,0 +1,36 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.persistence.entity.MovieEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.Collection;
+import java.util.List;
+
+public class CrudMovieEntityProjectionImpl implements CrudMovieEntityProjection {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Tuple> findAttributesByEstado(String estado, Collection<String> attributes) {
+		CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<MovieEntity> root = query.from(MovieEntity.class);
+
+		List<Selection<?>> selections = attributes.stream()
+				.<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+				.toList();
+
+		query.multiselect(selections)
+				.where(builder.equal(root.get("estado"), estado))
+				.orderBy(builder.asc(root.get("id")));
+
+		return this.entityManager.createQuery(query).getResultList();
+	}
+}
@@ -0,0 +1,21 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.persistence.entity.MovieTombstoneEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CrudMovieTombstoneEntity extends CrudRepository<MovieTombstoneEntity, Long> {
+
+	@Query("""
+			SELECT t FROM MovieTombstoneEntity t
+			WHERE (t.fechaEliminacion > :since OR (t.fechaEliminacion = :since AND t.peliculaId > :afterId))
+			AND t.fechaEliminacion <= :until
+			ORDER BY t.fechaEliminacion, t.peliculaId
+			""")
+	List<MovieTombstoneEntity> findDeletedSince(Instant since, long afterId, Instant until, Limit limit);
+
+}
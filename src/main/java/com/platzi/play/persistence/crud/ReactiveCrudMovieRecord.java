@@ -0,0 +1,11 @@
+package com.platzi.play.persistence.crud;
+
+import com.platzi.play.persistence.entity.MovieRecord;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveCrudMovieRecord extends ReactiveCrudRepository<MovieRecord, Long> {
+
+	Flux<MovieRecord> findAllByEstado(String estado);
+
+}
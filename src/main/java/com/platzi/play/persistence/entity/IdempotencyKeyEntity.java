@@ -0,0 +1,55 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Respuestas guardadas por Idempotency-Key; solo se usa con platzi-play.idempotency.persistence.enabled=true
+@Entity
+@Table(name = "platzi_play_idempotencia")
+public class IdempotencyKeyEntity {
+    @Id
+    @Column(length = 300)
+    private String clave;
+
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    @Column(nullable = false)
+    private byte[] respuesta;
+
+    @Column(nullable = false)
+    private Instant expira;
+
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getHuella() {
+        return huella;
+    }
+
+    public void setHuella(String huella) {
+        this.huella = huella;
+    }
+
+    public byte[] getRespuesta() {
+        return respuesta;
+    }
+
+    public void setRespuesta(byte[] respuesta) {
+        this.respuesta = respuesta;
+    }
+
+    public Instant getExpira() {
+        return expira;
+    }
+
+    public void setExpira(Instant expira) {
+        this.expira = expira;
+    }
+}
@@ -1,12 +1,18 @@
 package com.platzi.play.persistence.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name= "platzi_play_peliculas")
+@Table(name= "platzi_play_peliculas", indexes = {
+        @Index(name = "idx_peliculas_fecha_actualizacion", columnList = "fecha_actualizacion, id")
+})
 public class MovieEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +36,16 @@ public class MovieEntity {
     @Column(nullable = false, length = 1)
     private String estado;
 
+    // Los valores por defecto cubren las filas existentes y las cargas masivas que no pasan por Hibernate.
+    // Siempre con el reloj de la base: la sincronizacion incremental compara estas fechas con el de la base
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "fecha_creacion", nullable = false, updatable = false, columnDefinition = "TIMESTAMP(6) WITH TIME ZONE DEFAULT now()")
+    private Instant fechaCreacion;
+
+    @UpdateTimestamp(source = SourceType.DB)
+    @Column(name = "fecha_actualizacion", nullable = false, columnDefinition = "TIMESTAMP(6) WITH TIME ZONE DEFAULT now()")
+    private Instant fechaActualizacion;
+
     public Long getId() {
         return id;
     }
@@ -85,4 +101,20 @@ public class MovieEntity {
     public void setEstado(String estado) {
         this.estado = estado;
     }
+
+    public Instant getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(Instant fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Instant getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+
+    public void setFechaActualizacion(Instant fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
 }
@@ -0,0 +1,31 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+
+// Reproducciones por pelicula, separadas de platzi_play_peliculas para no bloquear sus filas
+@Entity
+@Table(name = "platzi_play_reproducciones")
+public class MoviePlayCountEntity {
+    @Id
+    @Column(name = "pelicula_id")
+    private Long peliculaId;
+
+    @Column(nullable = false)
+    private Long cantidad;
+
+    public Long getPeliculaId() {
+        return peliculaId;
+    }
+
+    public void setPeliculaId(Long peliculaId) {
+        this.peliculaId = peliculaId;
+    }
+
+    public Long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+}
@@ -0,0 +1,42 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+
+// Totales de votos de usuarios por pelicula; la clasificacion de la pelicula es suma / cantidad
+@Entity
+@Table(name = "platzi_play_calificaciones")
+public class MovieRatingEntity {
+    @Id
+    @Column(name = "pelicula_id")
+    private Long peliculaId;
+
+    @Column(nullable = false)
+    private Long suma;
+
+    @Column(nullable = false)
+    private Long cantidad;
+
+    public Long getPeliculaId() {
+        return peliculaId;
+    }
+
+    public void setPeliculaId(Long peliculaId) {
+        this.peliculaId = peliculaId;
+    }
+
+    public Long getSuma() {
+        return suma;
+    }
+
+    public void setSuma(Long suma) {
+        this.suma = suma;
+    }
+
+    public Long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+}
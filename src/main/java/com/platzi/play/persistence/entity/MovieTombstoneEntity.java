@@ -0,0 +1,39 @@
+package com.platzi.play.persistence.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.Instant;
+
+// Registro de una pelicula borrada, para que la sincronizacion incremental pueda informar el borrado
+@Entity
+@Table(name= "platzi_play_peliculas_eliminadas", indexes = {
+        @Index(name = "idx_peliculas_eliminadas_fecha", columnList = "fecha_eliminacion, pelicula_id")
+})
+public class MovieTombstoneEntity {
+    @Id
+    @Column(name = "pelicula_id")
+    private Long peliculaId;
+
+    // Reloj de la base, igual que fecha_actualizacion de las peliculas
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "fecha_eliminacion", nullable = false, updatable = false)
+    private Instant fechaEliminacion;
+
+    public Long getPeliculaId() {
+        return peliculaId;
+    }
+
+    public void setPeliculaId(Long peliculaId) {
+        this.peliculaId = peliculaId;
+    }
+
+    public Instant getFechaEliminacion() {
+        return fechaEliminacion;
+    }
+
+    public void setFechaEliminacion(Instant fechaEliminacion) {
+        this.fechaEliminacion = fechaEliminacion;
+    }
+}
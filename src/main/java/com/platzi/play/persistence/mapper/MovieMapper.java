@@ -3,6 +3,7 @@ package com.platzi.play.persistence.mapper;
 import com.platzi.play.domain.dto.MovieDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
 import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.entity.MovieRecord;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -20,6 +21,14 @@ public interface MovieMapper {
 
     List<MovieDto> toDto(Iterable<MovieEntity> entities);
 
+    @Mapping(source = "titulo", target = "title")
+    @Mapping(source = "duracion", target = "duration")
+    @Mapping(source = "genero", target = "genre", qualifiedByName = "stringToGenre")
+    @Mapping(source = "fechaEstreno", target = "releaseDate")
+    @Mapping(source = "clasificacion", target = "rating")
+    @Mapping(source = "estado", target = "state", qualifiedByName = "stateToBoolean")
+    MovieDto toDto(MovieRecord record);
+
     @InheritInverseConfiguration
     @Mappings({
             @Mapping(source = "genre", target = "genero", qualifiedByName = "genreToString"),
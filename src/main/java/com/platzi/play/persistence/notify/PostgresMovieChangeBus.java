@@ -0,0 +1,239 @@
+package com.platzi.play.persistence.notify;
+
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Mantiene coherentes los caches locales de varios nodos usando LISTEN/NOTIFY de Postgres.
+ * Cada escritura local se publica en el canal y cada nodo convierte los avisos de los demas
+ * en eventos locales marcados como remotos. Si la conexion de escucha se cae, al reconectar
+ * se publica una recarga completa porque pudieron perderse avisos. Una conexion medio abierta
+ * (el servidor o la red se fueron sin cerrar el socket) no da error al esperar avisos, por eso
+ * tras cada intervalo sin actividad se comprueba que siga respondiendo.
+ */
+@Component
+@ConditionalOnProperty(name = "platzi-play.cache.notify.enabled", havingValue = "true")
+public class PostgresMovieChangeBus implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PostgresMovieChangeBus.class);
+    private static final String SEPARATOR = "|";
+    private static final String RELOAD = "RELOAD";
+    private static final String RATINGS = "RATINGS";
+    // pg_notify admite hasta 8000 bytes: cada aviso de clasificaciones lleva como mucho este numero de peliculas
+    private static final int RATINGS_PER_NOTIFICATION = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListenerConnections listenerConnections;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final Duration heartbeatInterval;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresMovieChangeBus(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                  ObjectProvider<JdbcConnectionDetails> connectionDetails, DataSourceProperties dataSourceProperties,
+                                  @Value("${platzi-play.cache.notify.channel:platzi_play_movies}") String channel,
+                                  @Value("${platzi-play.cache.notify.reconnect-delay:2s}") Duration reconnectDelay,
+                                  @Value("${platzi-play.cache.notify.heartbeat-interval:30s}") Duration heartbeatInterval) {
+        this(jdbcTemplate, eventPublisher, driverConnections(connectionDetails.getIfAvailable(), dataSourceProperties),
+                channel, reconnectDelay, heartbeatInterval);
+    }
+
+    PostgresMovieChangeBus(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, ListenerConnections listenerConnections,
+                           String channel, Duration reconnectDelay, Duration heartbeatInterval) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Nombre de canal invalido: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.listenerConnections = listenerConnections;
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.remote()) return;
+
+        this.notifyNodes(event.operation().name() + SEPARATOR + event.movieId() + SEPARATOR + event.version());
+    }
+
+    @EventListener
+    public void onRatingsChanged(MovieRatingsChangedEvent event) {
+        if (event.remote()) return;
+
+        List<String> entries = event.ratings().entrySet().stream().map(entry -> entry.getKey() + ":" + entry.getValue()).toList();
+        for (int from = 0; from < entries.size(); from += RATINGS_PER_NOTIFICATION) {
+            List<String> chunk = entries.subList(from, Math.min(entries.size(), from + RATINGS_PER_NOTIFICATION));
+            this.notifyNodes(RATINGS + SEPARATOR + String.join(",", chunk) + SEPARATOR + System.currentTimeMillis());
+        }
+    }
+
+    @EventListener
+    public void onCatalogReloaded(MovieCatalogReloadedEvent event) {
+        if (event.remote()) return;
+
+        this.notifyNodes(RELOAD + SEPARATOR + event.changedRows() + SEPARATOR + System.currentTimeMillis());
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        this.listenerThread = Thread.ofPlatform().name("movie-change-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        if (this.listenerThread != null) {
+            this.listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    private void notifyNodes(String change) {
+        try {
+            this.jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, this.channel, this.nodeId + SEPARATOR + change);
+        } catch (RuntimeException e) {
+            // La escritura ya se hizo; los demas nodos se corregiran en su proxima resincronizacion
+            log.warn("No se pudo notificar el cambio {} a los demas nodos", change, e);
+        }
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+
+        while (this.running) {
+            try (Connection connection = this.listenerConnections.open()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + this.channel);
+                }
+
+                if (connectedBefore) {
+                    log.info("Escucha de cambios restablecida, resincronizando caches locales");
+                    this.eventPublisher.publishEvent(new MovieCatalogReloadedEvent(0, true));
+                }
+                connectedBefore = true;
+
+                long lastActivity = System.nanoTime();
+                while (this.running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) this.reconnectDelay.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications) {
+                            this.handle(notification.getParameter());
+                        }
+                        lastActivity = System.nanoTime();
+                    } else if (System.nanoTime() - lastActivity >= this.heartbeatInterval.toNanos()) {
+                        this.checkAlive(connection);
+                        lastActivity = System.nanoTime();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!this.running) return;
+
+                log.warn("Se perdio la conexion de escucha de cambios, reintentando en {}", this.reconnectDelay, e);
+                try {
+                    Thread.sleep(this.reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Sin respuesta dentro del plazo se trata como una caida: se reconecta y se resincroniza
+    private void checkAlive(Connection connection) throws SQLException {
+        int timeoutSeconds = (int) Math.max(1, this.reconnectDelay.toSeconds());
+        if (!connection.isValid(timeoutSeconds)) {
+            throw new SQLException("La conexion de escucha no respondio en " + timeoutSeconds + " s");
+        }
+    }
+
+    // La conexion de escucha queda fuera del pool: pasa horas abierta esperando avisos
+    private static ListenerConnections driverConnections(JdbcConnectionDetails details, DataSourceProperties dataSourceProperties) {
+        String url = details != null ? details.getJdbcUrl() : dataSourceProperties.determineUrl();
+        Properties properties = new Properties();
+        String username = details != null ? details.getUsername() : dataSourceProperties.determineUsername();
+        String password = details != null ? details.getPassword() : dataSourceProperties.determinePassword();
+        if (username != null) properties.setProperty("user", username);
+        if (password != null) properties.setProperty("password", password);
+        // Keepalive del sistema operativo como segunda barrera si el chequeo periodico no llegara a correr
+        properties.setProperty("tcpKeepAlive", "true");
+        return () -> DriverManager.getConnection(url, properties);
+    }
+
+    String nodeId() {
+        return this.nodeId;
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR);
+        if (parts.length != 4 || parts[0].equals(this.nodeId)) return;
+
+        try {
+            if (parts[1].equals(RELOAD)) {
+                this.eventPublisher.publishEvent(new MovieCatalogReloadedEvent(Long.parseLong(parts[2]), true));
+                return;
+            }
+            if (parts[1].equals(RATINGS)) {
+                this.eventPublisher.publishEvent(new MovieRatingsChangedEvent(parseRatings(parts[2]), true));
+                return;
+            }
+
+            MovieChangedEvent.Operation operation = MovieChangedEvent.Operation.valueOf(parts[1]);
+            this.eventPublisher.publishEvent(new MovieChangedEvent(Long.parseLong(parts[2]), operation, Long.parseLong(parts[3]), true));
+        } catch (IllegalArgumentException e) {
+            log.warn("Aviso de cambio ignorado: {}", payload);
+        }
+    }
+
+    private static Map<Long, Double> parseRatings(String ratings) {
+        Map<Long, Double> parsed = new HashMap<>();
+        for (String entry : ratings.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("Clasificacion mal formada: " + entry);
+            parsed.put(Long.parseLong(entry.substring(0, colon)), Double.parseDouble(entry.substring(colon + 1)));
+        }
+        return Map.copyOf(parsed);
+    }
+
+    @FunctionalInterface
+    interface ListenerConnections {
+        Connection open() throws SQLException;
+    }
+}
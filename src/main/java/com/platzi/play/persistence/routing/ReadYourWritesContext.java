@@ -0,0 +1,42 @@
+package com.platzi.play.persistence.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca el hilo actual para que sus lecturas vayan al primario, aunque la transaccion sea de solo lectura.
+ * Lo usa el filtro web cuando el cliente escribio hace poco y una replica todavia podria no tener sus cambios,
+ * y las lecturas que refrescan caches justo despues de un cambio confirmado.
+ */
+public final class ReadYourWritesContext {
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Ejecuta la accion con las lecturas fijadas al primario y deja la marca como estaba.
+     * Debe llamarse antes de abrir la transaccion: la conexion se elige con la primera consulta.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryRequired()) return action.get();
+
+        requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.platzi.play.persistence.routing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "platzi-play.datasource.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Pool> pools,
+        @DefaultValue("5s") Duration readYourWritesWindow,
+        @DefaultValue("10000") int readYourWritesMaxClients,
+        @DefaultValue("2s") Duration healthCheckTimeout
+) {
+
+    public record Pool(String name, String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.platzi.play.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reemplaza el datasource unico por uno que separa primario y replicas.
+ * Se activa con platzi-play.datasource.replicas.enabled=true; el primario sigue saliendo de spring.datasource.*.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "platzi-play.datasource.replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricRegistry(meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaProperties.Pool pool : replicaProperties.pools()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(pool.name());
+            replica.setJdbcUrl(pool.url());
+            replica.setUsername(pool.username());
+            replica.setPassword(pool.password());
+            replica.setDriverClassName(dataSourceProperties.getDriverClassName());
+            replica.setMaximumPoolSize(pool.maximumPoolSize());
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(pool.name(), replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.healthCheckTimeout(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // La conexion real se pide en la primera sentencia, cuando ya se sabe si la transaccion es de solo lectura
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,124 @@
+package com.platzi.play.persistence.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia las transacciones de solo lectura a las replicas sanas (round robin) y todo lo demas al primario.
+ * Debe envolverse en un LazyConnectionDataSourceProxy para que la conexion se pida despues de que
+ * la transaccion haya marcado si es de solo lectura.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final int healthCheckTimeoutSeconds;
+    private final DataSource primary;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration healthCheckTimeout, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(this.replicas.keySet());
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.routedConnections.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (String name : this.replicaNames) {
+            this.healthy.put(name, Boolean.TRUE);
+            this.routedConnections.put(name, routedCounter(meterRegistry, name));
+            Gauge.builder("platzi.datasource.replica.healthy", this.healthy, map -> Boolean.TRUE.equals(map.get(name)) ? 1 : 0)
+                    .description("1 si la replica responde al health check, 0 si esta fuera de rotacion")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = this.selectPool();
+        this.routedConnections.get(key).increment();
+        return key;
+    }
+
+    // true si una lectura del hilo actual puede ir a una replica, que quiza aun no tiene los ultimos cambios
+    public boolean routesToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesContext.isPrimaryRequired()
+                && !this.replicaNames.isEmpty();
+    }
+
+    public boolean isHealthy(String replicaName) {
+        return Boolean.TRUE.equals(this.healthy.get(replicaName));
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.datasource.replicas.health-check-interval:10s}")
+    public void checkReplicas() {
+        this.replicas.forEach((name, dataSource) -> {
+            boolean valid;
+            try (Connection connection = dataSource.getConnection()) {
+                valid = connection.isValid(this.healthCheckTimeoutSeconds);
+            } catch (Exception e) {
+                valid = false;
+            }
+
+            Boolean previous = this.healthy.put(name, valid);
+            if (previous != null && previous != valid) {
+                log.warn("Replica {} {}", name, valid ? "vuelve a la rotacion de lecturas" : "sale de la rotacion de lecturas");
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : this.replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+        if (this.primary instanceof AutoCloseable closeable) closeable.close();
+    }
+
+    private String selectPool() {
+        if (!this.routesToReplica()) return PRIMARY;
+
+        int size = this.replicaNames.size();
+        int start = Math.floorMod(this.next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String name = this.replicaNames.get((start + i) % size);
+            if (this.isHealthy(name)) return name;
+        }
+        // Sin replicas sanas las lecturas vuelven al primario
+        return PRIMARY;
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("platzi.datasource.routed.connections")
+                .description("Conexiones entregadas por el datasource de enrutamiento")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+}
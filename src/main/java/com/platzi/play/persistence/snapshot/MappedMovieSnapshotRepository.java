@@ -0,0 +1,176 @@
+package com.platzi.play.persistence.snapshot;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.repository.MovieSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binario del catalogo en un archivo local. Se escribe en un temporal y se renombra,
+ * asi que un lector nunca ve un archivo a medias; al leerlo se mapea en memoria y se recorre
+ * sin copiarlo a un buffer intermedio.
+ * Formato: cabecera (magic, version, cantidad), una fila por pelicula y un CRC32 final.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "platzi-play.snapshot", name = "enabled", havingValue = "true")
+public class MappedMovieSnapshotRepository implements MovieSnapshotRepository {
+    private static final Logger log = LoggerFactory.getLogger(MappedMovieSnapshotRepository.class);
+
+    private static final int MAGIC = 0x50504353;
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int TRAILER_BYTES = Long.BYTES;
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private final Path path;
+
+    public MappedMovieSnapshotRepository(@Value("${platzi-play.snapshot.path:data/platzi-play-catalog.snapshot}") Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public Optional<List<IndexedMovie>> load() {
+        if (!Files.isRegularFile(this.path)) return Optional.empty();
+
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                log.warn("Snapshot del catalogo {} ignorado: tamaño invalido", this.path);
+                return Optional.empty();
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (!hasValidChecksum(buffer, (int) size)) {
+                log.warn("Snapshot del catalogo {} ignorado: el checksum no coincide", this.path);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(read(buffer));
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            log.warn("No se pudo leer el snapshot del catalogo {}", this.path, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(Collection<IndexedMovie> movies) {
+        try {
+            Path directory = this.path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, this.path.getFileName().toString(), ".tmp");
+            try {
+                write(temp, movies);
+                Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el snapshot del catalogo en " + this.path, e);
+        }
+    }
+
+    private static void write(Path file, Collection<IndexedMovie> movies) throws IOException {
+        try (CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024), new CRC32());
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(movies.size());
+
+            for (IndexedMovie indexed : movies) {
+                MovieDto movie = indexed.movie();
+                out.writeLong(indexed.id());
+                writeString(out, movie.title());
+                out.writeInt(movie.duration() == null ? NULL_LENGTH : movie.duration());
+                writeString(out, movie.genre() == null ? null : movie.genre().name());
+                out.writeLong(movie.releaseDate() == null ? NULL_DATE : movie.releaseDate().toEpochDay());
+                out.writeDouble(movie.rating() == null ? Double.NaN : movie.rating());
+                writeString(out, movie.state());
+            }
+
+            out.flush();
+            // El CRC cubre todo lo anterior; escribirlo tambien lo suma al checksum pero ya no se consulta
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+    }
+
+    private static List<IndexedMovie> read(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) return null;
+
+        int count = buffer.getInt();
+        List<IndexedMovie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = buffer.getLong();
+            String title = readString(buffer);
+            int duration = buffer.getInt();
+            String genre = readString(buffer);
+            long releaseDate = buffer.getLong();
+            double rating = buffer.getDouble();
+            String state = readString(buffer);
+
+            movies.add(new IndexedMovie(id, new MovieDto(
+                    title,
+                    duration == NULL_LENGTH ? null : duration,
+                    genre == null ? null : Genre.valueOf(genre),
+                    releaseDate == NULL_DATE ? null : LocalDate.ofEpochDay(releaseDate),
+                    Double.isNaN(rating) ? null : rating,
+                    state
+            )));
+        }
+        return movies;
+    }
+
+    private static boolean hasValidChecksum(ByteBuffer buffer, int size) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, size - TRAILER_BYTES));
+        return crc.getValue() == buffer.getLong(size - TRAILER_BYTES);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) return null;
+
+        String value = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString();
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,143 @@
+package com.platzi.play.web.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieIndexListener;
+import com.platzi.play.domain.service.MovieService;
+import com.platzi.play.persistence.routing.ReadYourWritesContext;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Guarda la respuesta de GET /movies ya serializada en JSON y comprimida con gzip.
+ * Cada cambio en el catalogo avanza la version y la siguiente lectura la regenera una sola vez.
+ * Tambien se invalida cuando el indice se reconstruye, porque sin base la respuesta sale del indice
+ * y no debe quedar fijada al snapshot una vez reconciliado.
+ */
+@Component
+public class CatalogResponseCache implements MovieIndexListener {
+    private final MovieService movieService;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong version = new AtomicLong();
+    private volatile CatalogResponse current;
+
+    public CatalogResponseCache(MovieService movieService, ObjectMapper objectMapper) {
+        this.movieService = movieService;
+        this.objectMapper = objectMapper;
+    }
+
+    public CatalogResponse get() {
+        CatalogResponse response = this.current;
+        if (response != null && response.version() == this.version.get()) {
+            return response;
+        }
+
+        synchronized (this) {
+            long expectedVersion = this.version.get();
+            response = this.current;
+            if (response == null || response.version() != expectedVersion) {
+                response = this.build(expectedVersion);
+                this.current = response;
+            }
+            return response;
+        }
+    }
+
+    // Si el cambio ocurre dentro de una transaccion se invalida al confirmarla, no antes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        this.invalidate();
+    }
+
+    // Un lote de votos invalida una sola vez
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsChanged(MovieRatingsChangedEvent event) {
+        this.invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(MovieCatalogReloadedEvent event) {
+        this.invalidate();
+    }
+
+    public void invalidate() {
+        this.version.incrementAndGet();
+    }
+
+    @Override
+    public void onIndexRebuilt(Collection<IndexedMovie> movies) {
+        this.invalidate();
+    }
+
+    // Los cambios sueltos ya llegan como MovieChangedEvent
+    @Override
+    public void onMovieIndexed(IndexedMovie previous, IndexedMovie current) {
+    }
+
+    // Una mencion explicita de gzip manda sobre el comodin: "gzip;q=0, *" rechaza gzip
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase("gzip")) {
+                gzip = !isRejected(parts);
+            } else if (coding.equals("*")) {
+                wildcard = !isRejected(parts);
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static boolean isRejected(String[] parts) {
+        boolean rejected = false;
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    rejected = Double.parseDouble(param.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    rejected = true;
+                }
+            }
+        }
+        return rejected;
+    }
+
+    // Se construye justo despues de un cambio: leido de una replica atrasada quedaria fijado hasta el siguiente
+    private CatalogResponse build(long version) {
+        try {
+            byte[] json = this.objectMapper.writeValueAsBytes(ReadYourWritesContext.onPrimary(this.movieService::getAll));
+            return new CatalogResponse(version, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catalogo de peliculas.", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    public record CatalogResponse(long version, byte[] json, byte[] gzip) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.platzi.play.web.concurrency;
+
+import com.platzi.play.domain.exception.ServiceOverloadedException;
+import com.platzi.play.domain.resilience.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Deja pasar solo las peticiones que caben en el limite adaptativo y rechaza el resto con 503
+ * antes de tocar el pool de conexiones. La latencia medida incluye las consultas al repositorio,
+ * que es lo que se degrada cuando Postgres va lento.
+ */
+@Component
+@ConditionalOnProperty(prefix = "platzi-play.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConcurrencyLimitProperties.Priority priority;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.limiter = new AdaptiveConcurrencyLimiter(properties.initialLimit(), properties.minLimit(), properties.maxLimit(),
+                properties.tolerance(), properties.smoothing(), properties.longWindow(), properties.reservedFraction());
+        this.priority = properties.priority();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("platzi_play.concurrency.limit", this.limiter, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("platzi_play.concurrency.in_flight", this.limiter, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+        this.rejectedReads = Counter.builder("platzi_play.concurrency.rejected").tag("type", "read").register(registry);
+        this.rejectedWrites = Counter.builder("platzi_play.concurrency.rejected").tag("type", "write").register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) return true;
+
+        boolean read = isRead(request);
+        if (!this.limiter.tryAcquire(this.isHighPriority(read))) {
+            (read ? this.rejectedReads : this.rejectedWrites).increment();
+            throw new ServiceOverloadedException();
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) return;
+
+        request.removeAttribute(START_ATTRIBUTE);
+        this.limiter.release(System.nanoTime() - start, ex != null || response.getStatus() >= 500);
+    }
+
+    private boolean isHighPriority(boolean read) {
+        return switch (this.priority) {
+            case READS -> read;
+            case WRITES -> !read;
+            case NONE -> true;
+        };
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.platzi.play.web.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "platzi-play.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("/movies/**") List<String> includePaths,
+        @DefaultValue({"/movies/suggest", "/movies/suggest/**", "/movies/stream"}) List<String> excludePaths,
+        @DefaultValue("READS") Priority priority,
+        @DefaultValue("0.2") double reservedFraction,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("2.0") double tolerance,
+        @DefaultValue("0.2") double smoothing,
+        @DefaultValue("600") int longWindow
+) {
+
+    // Que tipo de peticion puede usar la parte reservada del limite
+    public enum Priority {
+        READS,
+        WRITES,
+        NONE
+    }
+}
@@ -0,0 +1,27 @@
+package com.platzi.play.web.config;
+
+import com.platzi.play.web.concurrency.ConcurrencyLimitInterceptor;
+import com.platzi.play.web.concurrency.ConcurrencyLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "platzi-play.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final ConcurrencyLimitProperties properties;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitInterceptor concurrencyLimitInterceptor, ConcurrencyLimitProperties properties) {
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this.concurrencyLimitInterceptor)
+                .addPathPatterns(this.properties.includePaths())
+                .excludePathPatterns(this.properties.excludePaths());
+    }
+}
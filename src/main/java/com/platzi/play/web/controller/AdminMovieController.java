@@ -0,0 +1,75 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.dto.MovieStatsDto;
+import com.platzi.play.domain.service.IdempotencyService;
+import com.platzi.play.domain.service.MovieIngestService;
+import com.platzi.play.domain.service.MovieStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("admin/movies")
+@Tag(name = "Admin movies", description = "Operaciones administrativas sobre el catalogo de PlatziPlay.")
+public class AdminMovieController {
+    private final MovieIngestService movieIngestService;
+    private final MovieStatsService movieStatsService;
+    private final IdempotencyService idempotencyService;
+
+    public AdminMovieController(MovieIngestService movieIngestService, MovieStatsService movieStatsService, IdempotencyService idempotencyService) {
+        this.movieIngestService = movieIngestService;
+        this.movieStatsService = movieStatsService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    @PostMapping(value = "/ingest", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+            summary = "Carga masiva de peliculas.",
+            description = "Recibe un CSV (titulo,duracion,genero,fecha_estreno,clasificacion) o NDJSON de MovieDto y lo inserta con COPY. Los titulos existentes se omiten "
+                    + "y las filas que no cumplen las validaciones de POST /movies se rechazan; ambas se cuentan en el reporte. "
+                    + "Con la cabecera Idempotency-Key un reintento recibe el reporte original sin volver a leer el archivo.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Archivo cargado"),
+                    @ApiResponse(responseCode = "400", description = "El archivo no se pudo cargar"),
+                    @ApiResponse(responseCode = "409", description = "La carga original con la misma Idempotency-Key sigue en curso")
+            }
+    )
+    public ResponseEntity<IngestReportDto> ingest(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body,
+                                                  @Parameter(description = "Clave unica de la carga para reintentos seguros.") @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        IngestFormat format = MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(contentType) ? IngestFormat.NDJSON : IngestFormat.CSV;
+        // El cuerpo se lee en streaming, nunca se carga completo en memoria
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(this.movieIngestService.ingest(new InputStreamReader(body, StandardCharsets.UTF_8), format));
+        }
+
+        // El archivo no se puede comparar sin leerlo entero, asi que la huella solo cubre el formato
+        IdempotencyService.Result<IngestReportDto> result = this.idempotencyService.execute("ingest", idempotencyKey, format, IngestReportDto.class,
+                () -> this.movieIngestService.ingest(new InputStreamReader(body, StandardCharsets.UTF_8), format));
+        return ResponseEntity.ok()
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
+    }
+
+    @PostMapping("/stats/rebuild")
+    @Operation(
+            summary = "Recalcula las estadisticas del catalogo.",
+            description = "Vuelve a leer todas las peliculas disponibles y reconstruye los indices en memoria, incluidas las estadisticas.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Estadisticas recalculadas")
+            }
+    )
+    public ResponseEntity<MovieStatsDto> rebuildStats() {
+        return ResponseEntity.ok(this.movieStatsService.rebuild());
+    }
+}
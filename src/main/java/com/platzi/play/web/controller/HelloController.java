@@ -1,6 +1,6 @@
 package com.platzi.play.web.controller;
 
-import com.platzi.play.domain.service.PlatziPlayAiService;
+import com.platzi.play.domain.service.ResilientAiService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -9,9 +9,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class HelloController {
 
     private final String plataform;
-    private final PlatziPlayAiService aiService;
+    private final ResilientAiService aiService;
 
-    public HelloController(@Value("${spring.application.name}")String plataform, PlatziPlayAiService aiService) {
+    public HelloController(@Value("${spring.application.name}")String plataform, ResilientAiService aiService) {
         this.plataform = plataform;
         this.aiService = aiService;
     }
@@ -1,32 +1,75 @@
 package com.platzi.play.web.controller;
 
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MovieField;
+import com.platzi.play.domain.SuggestionMode;
+import com.platzi.play.domain.dto.MovieChangesDto;
 import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MoviePlaysDto;
+import com.platzi.play.domain.dto.MovieStatsDto;
+import com.platzi.play.domain.dto.RatingDto;
 import com.platzi.play.domain.dto.SuggestRequestDto;
+import com.platzi.play.domain.dto.SuggestionJobDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.service.IdempotencyService;
+import com.platzi.play.domain.service.MoviePlayService;
+import com.platzi.play.domain.service.MovieRankingService;
+import com.platzi.play.domain.service.MovieRatingService;
 import com.platzi.play.domain.service.MovieService;
-import com.platzi.play.domain.service.PlatziPlayAiService;
+import com.platzi.play.domain.service.MovieSimilarityService;
+import com.platzi.play.domain.service.MovieSuggestionJobService;
+import com.platzi.play.domain.service.MovieSuggestionService;
+import com.platzi.play.domain.service.MovieStatsService;
+import com.platzi.play.web.cache.CatalogResponseCache;
+import com.platzi.play.web.config.BinaryFormatsConfig;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("movies")
 @Tag(name = "Movies", description = "Operation about movies of PlatziPlay.")
 public class MovieController {
     private final MovieService movieService;
-    private final PlatziPlayAiService aiService;
+    private final MovieSuggestionService movieSuggestionService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final MovieStatsService movieStatsService;
+    private final MovieRankingService movieRankingService;
+    private final MovieRatingService movieRatingService;
+    private final MoviePlayService moviePlayService;
+    private final MovieSimilarityService movieSimilarityService;
+    private final MovieSuggestionJobService movieSuggestionJobService;
+    private final IdempotencyService idempotencyService;
 
-    public MovieController(MovieService movieService, PlatziPlayAiService aiService) {
+    public MovieController(MovieService movieService, MovieSuggestionService movieSuggestionService, CatalogResponseCache catalogResponseCache,
+                           MovieStatsService movieStatsService, MovieRankingService movieRankingService, MovieRatingService movieRatingService,
+                           MoviePlayService moviePlayService, MovieSimilarityService movieSimilarityService,
+                           MovieSuggestionJobService movieSuggestionJobService, IdempotencyService idempotencyService) {
         this.movieService = movieService;
-        this.aiService = aiService;
+        this.movieSuggestionService = movieSuggestionService;
+        this.catalogResponseCache = catalogResponseCache;
+        this.movieStatsService = movieStatsService;
+        this.movieRankingService = movieRankingService;
+        this.movieRatingService = movieRatingService;
+        this.moviePlayService = moviePlayService;
+        this.movieSimilarityService = movieSimilarityService;
+        this.movieSuggestionJobService = movieSuggestionJobService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
@@ -34,11 +77,99 @@ public class MovieController {
             summary = "Obtener todas las peliculas existentes.",
             description = "Retorna todas las peliculas existentes en base de datos.",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Peliculas encontradas"),
+                    @ApiResponse(responseCode = "200", description = "Peliculas encontradas",
+                            content = {
+                                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = MovieDto.class))),
+                                    @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, array = @ArraySchema(schema = @Schema(implementation = MovieDto.class))),
+                                    @Content(mediaType = BinaryFormatsConfig.APPLICATION_SMILE_VALUE, array = @ArraySchema(schema = @Schema(implementation = MovieDto.class)))
+                            }),
             }
     )
-    public ResponseEntity<List<MovieDto>> getAll() {
-        return ResponseEntity.ok(this.movieService.getAll());
+    public ResponseEntity<?> getAll(@Parameter(description = "Campos a incluir separados por coma", example = "title,rating,genre") @RequestParam(required = false) String fields,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Set<MovieField> selectedFields = MovieField.parse(fields);
+        if (!selectedFields.isEmpty()) {
+            // Solo se consultan y serializan las columnas pedidas por el cliente
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(this.movieService.getAll(selectedFields));
+        }
+
+        MediaType binaryType = preferredBinaryType(accept);
+        if (binaryType != null) {
+            return ResponseEntity.ok()
+                    .contentType(binaryType)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(this.movieService.getAll());
+        }
+
+        // El catalogo ya viene serializado y comprimido, solo se copian los bytes a la respuesta
+        CatalogResponseCache.CatalogResponse catalog = this.catalogResponseCache.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        if (CatalogResponseCache.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.gzip());
+        }
+        return response.body(catalog.json());
+    }
+
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Obtener los cambios del catalogo desde un token.",
+            description = "Retorna altas, modificaciones y bajas posteriores al token. Sin token se entrega el catalogo desde el inicio; "
+                    + "el nextToken de la respuesta se usa en la siguiente llamada.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Cambios encontrados"),
+                    @ApiResponse(responseCode = "400", description = "Token de sincronizacion invalido", content = @Content)
+            }
+    )
+    public ResponseEntity<MovieChangesDto> getChanges(@Parameter(description = "Token devuelto por la llamada anterior") @RequestParam(required = false) String since,
+                                                      @Parameter(description = "Cantidad maxima de cambios (1-1000)", example = "500") @RequestParam(defaultValue = "500") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, 1000));
+        return ResponseEntity.ok(this.movieService.getChangesSince(since, boundedLimit));
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Estadisticas del catalogo.",
+            description = "Cantidad y clasificacion promedio por genero, distribucion de duraciones en minutos y estrenos por año de las peliculas disponibles.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Estadisticas del catalogo")
+            }
+    )
+    public ResponseEntity<MovieStatsDto> getStats() {
+        return ResponseEntity.ok(this.movieStatsService.getStats());
+    }
+
+    @GetMapping("/top")
+    @Operation(
+            summary = "Peliculas mejor clasificadas.",
+            description = "Retorna las N peliculas con mayor clasificacion, del catalogo completo o de un genero. A igual clasificacion va primero el estreno mas reciente.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ranking de peliculas"),
+                    @ApiResponse(responseCode = "400", description = "Genero invalido", content = @Content)
+            }
+    )
+    public ResponseEntity<List<MovieDto>> getTop(@Parameter(description = "Genero del ranking; sin genero es el ranking global", example = "HORROR") @RequestParam(required = false) Genre genre,
+                                                 @Parameter(description = "Cantidad de peliculas (1-100)", example = "10") @RequestParam(defaultValue = "10") int n) {
+        int boundedN = Math.max(1, Math.min(n, 100));
+        return ResponseEntity.ok(this.movieRankingService.getTop(genre, boundedN));
+    }
+
+    @GetMapping("/most-played")
+    @Operation(
+            summary = "Peliculas mas reproducidas.",
+            description = "Retorna las N peliculas con mas reproducciones segun los contadores en memoria (se recalcula como maximo una vez por segundo).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ranking de reproducciones")
+            }
+    )
+    public ResponseEntity<List<MoviePlaysDto>> getMostPlayed(@Parameter(description = "Cantidad de peliculas (1-100)", example = "10") @RequestParam(defaultValue = "10") int n) {
+        int boundedN = Math.max(1, Math.min(n, 100));
+        return ResponseEntity.ok(this.moviePlayService.getMostPlayed(boundedN));
     }
 
     @GetMapping("/{id}")
@@ -59,31 +190,119 @@ public class MovieController {
         return ResponseEntity.ok(movieDto);
     }
 
+    @GetMapping("/{id}/similar")
+    @Operation(
+            summary = "Peliculas parecidas.",
+            description = "Retorna las k peliculas mas cercanas por genero, duracion, año de estreno y clasificacion, calculadas localmente sin el modelo de IA.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Peliculas parecidas"),
+                    @ApiResponse(responseCode = "404", description = "Pelicula no encontrada", content = @Content)
+            }
+    )
+    public ResponseEntity<List<MovieDto>> getSimilar(@Parameter(description = "Identificador de la pelicula de referencia", example = "9") @PathVariable long id,
+                                                     @Parameter(description = "Cantidad de peliculas (1-50)", example = "5") @RequestParam(defaultValue = "5") int k) {
+        int boundedK = Math.max(1, Math.min(k, 50));
+        return ResponseEntity.ok(this.movieSimilarityService.getSimilar(id, boundedK));
+    }
+
+    @PostMapping("/{id}/ratings")
+    @Operation(
+            summary = "Califica una pelicula.",
+            description = "Registra el voto de un usuario (1 a 5). Los votos se acumulan y la clasificacion promedio de la pelicula se actualiza en el siguiente volcado.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Voto registrado"),
+                    @ApiResponse(responseCode = "400", description = "Calificacion fuera de rango", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Pelicula no encontrada", content = @Content)
+            }
+    )
+    public ResponseEntity<Void> rate(@Parameter(description = "Identificador de la pelicula a calificar", example = "9") @PathVariable long id,
+                                     @RequestBody @Valid RatingDto ratingDto) {
+        this.movieRatingService.rate(id, ratingDto.score());
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/{id}/plays")
+    @Operation(
+            summary = "Registra una reproduccion.",
+            description = "Suma una reproduccion a la pelicula. El contador se guarda en la base de datos en lotes.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Reproduccion registrada"),
+                    @ApiResponse(responseCode = "404", description = "Pelicula no encontrada", content = @Content)
+            }
+    )
+    public ResponseEntity<Void> play(@Parameter(description = "Identificador de la pelicula reproducida", example = "9") @PathVariable long id) {
+        this.moviePlayService.play(id);
+        return ResponseEntity.accepted().build();
+    }
+
     @PostMapping("/suggest")
     @Operation(
             summary = "Pelicula sugerida dentro de la base de datos.",
-            description = "Retorna peliculas sugeridas segun tus intereses.",
+            description = "Retorna como maximo 3 peliculas sugeridas segun tus intereses, generadas por el modelo de IA o por el recomendador local.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Pelicula sugerida")
             }
     )
-    public ResponseEntity<String> generateMoviesSuggestion(@RequestBody SuggestRequestDto suggestRequestDto) {
-        return ResponseEntity.ok(this.aiService.generateMoviesSuggestion(suggestRequestDto.userPreferences()));
+    public ResponseEntity<String> generateMoviesSuggestion(@RequestBody SuggestRequestDto suggestRequestDto,
+                                                           @Parameter(description = "AI, LOCAL o AUTO; sin valor se usa el modo configurado", example = "LOCAL") @RequestParam(required = false) SuggestionMode mode) {
+        return ResponseEntity.ok(this.movieSuggestionService.suggest(suggestRequestDto.userPreferences(), mode));
+    }
+
+    @PostMapping("/suggest/jobs")
+    @Operation(
+            summary = "Encola una sugerencia para procesarla en segundo plano.",
+            description = "Retorna 202 con el identificador del trabajo; el resultado se consulta en GET /movies/suggest/jobs/{id}. Los trabajos de mayor prioridad (0-9) se atienden primero.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+                    @ApiResponse(responseCode = "503", description = "La cola de sugerencias esta llena", content = @Content)
+            }
+    )
+    public ResponseEntity<SuggestionJobDto> submitSuggestionJob(@RequestBody SuggestRequestDto suggestRequestDto,
+                                                                @Parameter(description = "Prioridad del trabajo, 9 es la mas alta", example = "5") @RequestParam(defaultValue = "5") int priority,
+                                                                @Parameter(description = "AI, LOCAL o AUTO; sin valor se usa el modo configurado") @RequestParam(required = false) SuggestionMode mode) {
+        SuggestionJobDto job = this.movieSuggestionJobService.submit(suggestRequestDto.userPreferences(), mode, priority);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.id()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/suggest/jobs/{id}")
+    @Operation(
+            summary = "Consulta un trabajo de sugerencias.",
+            description = "Retorna el estado del trabajo y, cuando termina, la sugerencia o el error.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Estado del trabajo"),
+                    @ApiResponse(responseCode = "404", description = "El trabajo no existe o expiro", content = @Content)
+            }
+    )
+    public ResponseEntity<SuggestionJobDto> getSuggestionJob(@Parameter(description = "Identificador del trabajo") @PathVariable String id) {
+        return ResponseEntity.ok(this.movieSuggestionJobService.get(id));
     }
 
     @PostMapping
     @Operation(
             summary = "Agrega peliculas a la base de datos.",
-            description = "Agrega peliculas en la base de datos local",
+            description = "Agrega peliculas en la base de datos local. Con la cabecera Idempotency-Key un reintento recibe la respuesta original sin volver a crear la pelicula.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Nuevo recurso agregado con exito"),
-                    @ApiResponse(responseCode = "400", description = "Faltan parametros obligatorios.", content = @Content)
+                    @ApiResponse(responseCode = "400", description = "Faltan parametros obligatorios.", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "El pedido original con la misma Idempotency-Key sigue en curso.", content = @Content),
+                    @ApiResponse(responseCode = "422", description = "La Idempotency-Key ya se uso con otra pelicula.", content = @Content)
             }
 
     )
-    public ResponseEntity<MovieDto> add(@RequestBody @Valid MovieDto movieDto) {
-        MovieDto movieDtoResponse = this.movieService.add(movieDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(movieDtoResponse);
+    public ResponseEntity<MovieDto> add(@RequestBody @Valid MovieDto movieDto,
+                                        @Parameter(description = "Clave unica del pedido para reintentos seguros.") @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            MovieDto movieDtoResponse = this.movieService.add(movieDto);
+            return ResponseEntity.status(HttpStatus.CREATED).body(movieDtoResponse);
+        }
+
+        IdempotencyService.Result<MovieDto> result = this.idempotencyService.execute("movies", idempotencyKey, movieDto, MovieDto.class,
+                () -> this.movieService.add(movieDto));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
     }
 
     @PutMapping("/{id}")
@@ -114,4 +333,32 @@ public class MovieController {
         this.movieService.delete(id);
         return ResponseEntity.ok().build();
     }
+
+    // Devuelve CBOR o Smile solo cuando el cliente los prefiere sobre JSON, en otro caso null
+    private static MediaType preferredBinaryType(String accept) {
+        if (accept == null) return null;
+
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+
+        MediaType binaryType = null;
+        double binaryQuality = 0;
+        double jsonQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            double quality = mediaType.getQualityValue();
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) || mediaType.equalsTypeAndSubtype(BinaryFormatsConfig.APPLICATION_SMILE)) {
+                if (quality > binaryQuality) {
+                    binaryQuality = quality;
+                    binaryType = mediaType.removeQualityValue();
+                }
+            } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, quality);
+            }
+        }
+        return binaryQuality > jsonQuality ? binaryType : null;
+    }
 }
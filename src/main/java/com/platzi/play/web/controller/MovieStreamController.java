@@ -0,0 +1,36 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.web.stream.MovieChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("movies")
+@Tag(name = "Movies stream", description = "Cambios del catalogo de PlatziPlay en tiempo real.")
+public class MovieStreamController {
+    private final MovieChangeFeed movieChangeFeed;
+
+    public MovieStreamController(MovieChangeFeed movieChangeFeed) {
+        this.movieChangeFeed = movieChangeFeed;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Suscribirse a los cambios del catalogo.",
+            description = "Envia eventos movie-change, ratings-change (nuevas clasificaciones por id, una vez por lote de votos) y catalog-reload por Server-Sent Events. Con Last-Event-ID se reanuda desde el ultimo evento recibido; si ya no esta disponible llega un evento resync y el cliente debe recargar el catalogo.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Suscripcion abierta"),
+                    @ApiResponse(responseCode = "503", description = "No se admiten mas suscriptores")
+            }
+    )
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return this.movieChangeFeed.subscribe(lastEventId);
+    }
+}
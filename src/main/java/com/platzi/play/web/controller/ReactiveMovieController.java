@@ -0,0 +1,53 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.service.ReactiveMovieService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("reactive/movies")
+@Tag(name = "Reactive movies", description = "Lecturas no bloqueantes del catalogo de PlatziPlay sobre R2DBC.")
+public class ReactiveMovieController {
+    private final ReactiveMovieService reactiveMovieService;
+
+    public ReactiveMovieController(ReactiveMovieService reactiveMovieService) {
+        this.reactiveMovieService = reactiveMovieService;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Obtener todas las peliculas existentes sin bloquear.",
+            description = "Con Accept application/x-ndjson o text/event-stream las peliculas se envian a medida que el cliente las consume.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Peliculas encontradas"),
+            }
+    )
+    public Flux<MovieDto> getAll() {
+        return this.reactiveMovieService.getAll();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Obtener una pelicula por su identificador sin bloquear.",
+            description = "Retorna la pelicula que coincida con el identificador enviado.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Pelicula encontrada"),
+                    @ApiResponse(responseCode = "404", description = "Pelicula no encontrada", content = @Content)
+            }
+    )
+    public Mono<MovieDto> getById(@Parameter(description = "Identificador de pelicula a recuperar", example = "9") @PathVariable long id) {
+        return this.reactiveMovieService.getById(id);
+    }
+}
@@ -1,6 +1,36 @@
 package com.platzi.play.web.exception;
 
+import java.nio.charset.StandardCharsets;
+
 public record Error(String type, String message) {
 
+    // Serializa el error a mano para poder preconstruir cuerpos fijos sin pasar por Jackson
+    public byte[] toJsonBytes() {
+        return ("{\"type\":" + quote(type) + ",\"message\":" + quote(message) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        if (value == null) return "null";
 
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
 }
@@ -1,12 +1,26 @@
 package com.platzi.play.web.exception;
 
+import com.platzi.play.domain.exception.IdempotencyKeyReusedException;
+import com.platzi.play.domain.exception.IdempotencyRequestInProgressException;
+import com.platzi.play.domain.exception.InvalidIdempotencyKeyException;
+import com.platzi.play.domain.exception.InvalidSyncTokenException;
 import com.platzi.play.domain.exception.MovieAlreadyExistsException;
+import com.platzi.play.domain.exception.MovieIngestException;
 import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.exception.MovieStreamFullException;
+import com.platzi.play.domain.exception.RateLimitExceededException;
+import com.platzi.play.domain.exception.ServiceOverloadedException;
+import com.platzi.play.domain.exception.SuggestionJobNotFoundException;
+import com.platzi.play.domain.exception.SuggestionQueueFullException;
+import com.platzi.play.domain.exception.UnknownMovieFieldException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,15 +28,81 @@ import java.util.List;
 @RestControllerAdvice
 public class RestExceptionHadler {
 
+    // Cuerpo del 404 preconstruido una sola vez: cada respuesta solo copia estos bytes
+    private static final byte[] MOVIE_NOT_FOUND_BODY = new Error("movie-not-found", MovieNotFound.MESSAGE).toJsonBytes();
+    private static final byte[] SERVICE_OVERLOADED_BODY = new Error("service-overloaded", ServiceOverloadedException.MESSAGE).toJsonBytes();
+
     @ExceptionHandler(MovieAlreadyExistsException.class)
-    public ResponseEntity<Error> handlerException(MovieAlreadyExistsException ex) {
+    public ResponseEntity<byte[]> handlerException(MovieAlreadyExistsException ex) {
         Error error = new Error("movie-already-exits", ex.getMessage());
-        return ResponseEntity.badRequest().body(error);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error.toJsonBytes());
     }
 
     @ExceptionHandler
-    public ResponseEntity<Error> handlerException(MovieNotFound ex) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new Error("movie-not-found", ex.getMessage()));
+    public ResponseEntity<byte[]> handlerException(MovieNotFound ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(MOVIE_NOT_FOUND_BODY);
+    }
+
+    @ExceptionHandler(UnknownMovieFieldException.class)
+    public ResponseEntity<Error> handlerException(UnknownMovieFieldException ex) {
+        return ResponseEntity.badRequest().body(new Error("movie-field-unknown", ex.getMessage()));
+    }
+
+    @ExceptionHandler(MovieIngestException.class)
+    public ResponseEntity<Error> handlerException(MovieIngestException ex) {
+        return ResponseEntity.badRequest().body(new Error("movie-ingest-failed", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidSyncTokenException.class)
+    public ResponseEntity<Error> handlerException(InvalidSyncTokenException ex) {
+        return ResponseEntity.badRequest().body(new Error("sync-token-invalid", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Error> handlerException(InvalidIdempotencyKeyException ex) {
+        return ResponseEntity.badRequest().body(new Error("idempotency-key-invalid", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Error> handlerException(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.unprocessableEntity().body(new Error("idempotency-key-reused", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyRequestInProgressException.class)
+    public ResponseEntity<Error> handlerException(IdempotencyRequestInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new Error("idempotency-request-in-progress", ex.getMessage()));
+    }
+
+    // Bytes con tipo explicito: el cliente pidio text/event-stream y no hay conversor JSON para ese Accept
+    @ExceptionHandler(MovieStreamFullException.class)
+    public ResponseEntity<byte[]> handlerException(MovieStreamFullException ex) {
+        Error error = new Error("movie-stream-full", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(error.toJsonBytes());
+    }
+
+    @ExceptionHandler(SuggestionJobNotFoundException.class)
+    public ResponseEntity<Error> handlerException(SuggestionJobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new Error("suggestion-job-not-found", ex.getMessage()));
+    }
+
+    @ExceptionHandler(SuggestionQueueFullException.class)
+    public ResponseEntity<Error> handlerException(SuggestionQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new Error("suggestion-queue-full", ex.getMessage()));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Error> handlerException(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new Error("rate-limit-exceeded", ex.getMessage()));
+    }
+
+    // El rechazo por saturacion tiene que costar lo minimo: cuerpo fijo y sin serializar
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<byte[]> handlerException(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON).body(SERVICE_OVERLOADED_BODY);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -36,6 +116,11 @@ public class RestExceptionHadler {
 
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Error> handlerException(MethodArgumentTypeMismatchException ex) {
+        return ResponseEntity.badRequest().body(new Error(ex.getName(), "El valor '" + ex.getValue() + "' no es valido."));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Error> handlerException(Exception ex) {
         Error error = new Error("unknown-error", ex.getMessage());
@@ -0,0 +1,81 @@
+package com.platzi.play.web.filter;
+
+import com.platzi.play.persistence.routing.ReadYourWritesContext;
+import com.platzi.play.persistence.routing.ReplicaProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durante una ventana corta despues de que un cliente escribe, sus lecturas van al primario
+ * para que vea sus propios cambios aunque la replica tenga retraso.
+ * El cliente se identifica con la cabecera X-Client-Id o, si no la envia, con su IP.
+ */
+@Component
+@ConditionalOnProperty(prefix = "platzi-play.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final int maxClients;
+
+    public ReadYourWritesFilter(ReplicaProperties replicaProperties) {
+        this.windowNanos = replicaProperties.readYourWritesWindow().toNanos();
+        this.maxClients = replicaProperties.readYourWritesMaxClients();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+
+        if (isWrite(request)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                this.recordWrite(client);
+            }
+            return;
+        }
+
+        Long lastWrite = this.lastWriteByClient.get(client);
+        if (lastWrite != null && System.nanoTime() - lastWrite < this.windowNanos) {
+            ReadYourWritesContext.requirePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    private void recordWrite(String client) {
+        long now = System.nanoTime();
+        if (this.lastWriteByClient.size() >= this.maxClients) {
+            // Las entradas fuera de la ventana ya no cambian el enrutamiento, se pueden descartar
+            this.lastWriteByClient.values().removeIf(lastWrite -> now - lastWrite >= this.windowNanos);
+        }
+        this.lastWriteByClient.put(client, now);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> false;
+            default -> true;
+        };
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
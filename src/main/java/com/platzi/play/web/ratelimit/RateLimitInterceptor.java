@@ -0,0 +1,70 @@
+package com.platzi.play.web.ratelimit;
+
+import com.platzi.play.domain.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita por cliente las rutas configuradas en platzi-play.rate-limit.routes (las que llaman al modelo de IA).
+ * La ruta se reconoce por el patron del mapping, asi que /movies/suggest/jobs/{id} no comparte cubo con /movies/suggest.
+ * El cliente se identifica con la cabecera X-API-Key solo si la clave esta en platzi-play.rate-limit.api-keys;
+ * cualquier otra clave se ignora y cuenta su IP, para que inventar claves no de cubos nuevos.
+ */
+@Component
+@ConditionalOnProperty(prefix = "platzi-play.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitInterceptor implements HandlerInterceptor {
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final Map<String, RateLimitProperties.Route> routes = new HashMap<>();
+    private final Set<String> apiKeys;
+    private final TokenBucketTable buckets;
+
+    public RateLimitInterceptor(RateLimitProperties properties) {
+        for (RateLimitProperties.Route route : properties.routes()) {
+            this.routes.put(route.method().toUpperCase() + " " + route.path(), route);
+        }
+        this.apiKeys = Set.copyOf(properties.apiKeys());
+        this.buckets = new TokenBucketTable(properties.idleTimeout().toNanos(), properties.maxClients());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) return true;
+
+        String routeKey = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RateLimitProperties.Route route = this.routes.get(routeKey);
+        if (route == null) return true;
+
+        long waitNanos = this.buckets.tryAcquire(routeKey, this.clientOf(request), route.capacity(), route.refillPeriod().toNanos());
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.rate-limit.eviction-interval:1m}")
+    public void evictIdle() {
+        this.buckets.evictIdle();
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && this.apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
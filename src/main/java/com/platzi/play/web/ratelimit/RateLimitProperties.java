@@ -0,0 +1,22 @@
+package com.platzi.play.web.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "platzi-play.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue Set<String> apiKeys,
+        @DefaultValue List<Route> routes
+) {
+
+    // Cada cliente puede gastar capacity peticiones de golpe y el cubo se vuelve a llenar en refillPeriod
+    public record Route(String method, String path, @DefaultValue("10") int capacity, @DefaultValue("1m") Duration refillPeriod) {
+    }
+}
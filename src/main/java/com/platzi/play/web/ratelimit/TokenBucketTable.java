@@ -0,0 +1,104 @@
+package com.platzi.play.web.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cubos de tokens por clave sin bloqueos. Cada cubo guarda un solo long: el instante en que
+ * volveria a estar lleno (algoritmo GCRA), asi que consumir un token es un compareAndSet.
+ * Un cubo ya lleno equivale a no tener cubo, por eso se puede descartar sin perder nada.
+ * La tabla nunca pasa de maxBuckets: si esta llena y no hay cubos llenos que descartar,
+ * los clientes nuevos de cada ruta comparten el cubo de desborde de esa ruta hasta que se
+ * libere sitio. Buscar cubos llenos recorre toda la tabla, asi que con la tabla llena se
+ * hace como mucho una vez entre dos limpiezas periodicas.
+ */
+public class TokenBucketTable {
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // Plazas ocupadas o reservadas; el size() del mapa es solo una estimacion bajo concurrencia
+    private final AtomicInteger occupied = new AtomicInteger();
+    // Un cubo de desborde por ruta: las rutas vienen de la configuracion, asi que son pocas
+    private final ConcurrentHashMap<String, AtomicLong> overflows = new ConcurrentHashMap<>();
+    // Se rearma en cada limpieza periodica y lo consume la primera clave nueva que encuentra la tabla llena
+    private final AtomicBoolean fullScanAllowed = new AtomicBoolean(true);
+    private final LongSupplier clock;
+    private final long idleNanos;
+    private final int maxBuckets;
+
+    public TokenBucketTable(long idleNanos, int maxBuckets) {
+        this(System::nanoTime, idleNanos, maxBuckets);
+    }
+
+    TokenBucketTable(LongSupplier clock, long idleNanos, int maxBuckets) {
+        this.clock = clock;
+        this.idleNanos = idleNanos;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Consume un token del cubo del cliente en la ruta. Devuelve 0 si habia token o, si no,
+     * los nanosegundos que faltan para que se reponga el siguiente.
+     */
+    public long tryAcquire(String route, String client, int capacity, long refillPeriodNanos) {
+        long interval = Math.max(1, refillPeriodNanos / capacity);
+        long burst = interval * capacity;
+        long now = this.clock.getAsLong();
+
+        String key = route + "|" + client;
+        AtomicLong bucket = this.buckets.get(key);
+        if (bucket == null) {
+            bucket = this.admit(route, key, now);
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(fullAt, next)) return 0;
+        }
+    }
+
+    public void evictIdle() {
+        this.evict(this.clock.getAsLong(), this.idleNanos);
+        this.fullScanAllowed.set(true);
+    }
+
+    public int size() {
+        return this.buckets.size();
+    }
+
+    private AtomicLong admit(String route, String key, long now) {
+        if (!this.reserve()) {
+            if (this.fullScanAllowed.compareAndSet(true, false)) {
+                this.evict(now, 0);
+            }
+            if (!this.reserve()) return this.overflows.computeIfAbsent(route, ignored -> new AtomicLong(now));
+        }
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = this.buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            this.occupied.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    private boolean reserve() {
+        if (this.occupied.incrementAndGet() <= this.maxBuckets) return true;
+        this.occupied.decrementAndGet();
+        return false;
+    }
+
+    private void evict(long now, long idleNanos) {
+        for (Map.Entry<String, AtomicLong> entry : this.buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            if (now - bucket.get() >= idleNanos && this.buckets.remove(entry.getKey(), bucket)) {
+                this.occupied.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.platzi.play.web.stream;
+
+import com.platzi.play.domain.dto.MovieChangeEventDto;
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import com.platzi.play.domain.exception.MovieStreamFullException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparte los cambios del catalogo a los clientes conectados por Server-Sent Events.
+ * Cada suscriptor tiene una cola acotada: si se llena porque el cliente no lee a tiempo se le
+ * desconecta en lugar de acumular memoria o frenar a los demas. Los suscriptores inactivos no
+ * ocupan hilos; solo se usa un hilo virtual mientras se le escribe a un cliente.
+ * Los ultimos eventos se guardan con un numero de secuencia para reanudar con Last-Event-ID.
+ * El id de cada evento es "epoca:secuencia", con una epoca aleatoria por arranque: un id emitido por
+ * otro nodo o antes de un reinicio no coincide y el cliente recibe resync en lugar de una posicion equivocada.
+ */
+@Component
+public class MovieChangeFeed implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(MovieChangeFeed.class);
+
+    static final String CHANGE_EVENT = "movie-change";
+    static final String RELOAD_EVENT = "catalog-reload";
+    static final String RATINGS_EVENT = "ratings-change";
+    static final String RESYNC_EVENT = "resync";
+    private static final char ID_SEPARATOR = ':';
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final ArrayDeque<FeedEvent> history;
+    private final ExecutorService executor;
+    private final int historySize;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final String epoch = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private long sequence;
+
+    public MovieChangeFeed(@Value("${platzi-play.movies.stream.history-size:1024}") int historySize,
+                           @Value("${platzi-play.movies.stream.buffer-size:64}") int bufferSize,
+                           @Value("${platzi-play.movies.stream.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${platzi-play.movies.stream.timeout:30m}") Duration timeout) {
+        this.history = new ArrayDeque<>(historySize);
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Registra un nuevo suscriptor. Si trae Last-Event-ID se le reenvian los eventos posteriores
+     * que sigan en el historial; si ya no estan se le envia un evento resync para que recargue el catalogo.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (this.subscribers.size() >= this.maxSubscribers) {
+            throw new MovieStreamFullException();
+        }
+
+        SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        Subscriber subscriber = new Subscriber(this.subscriberIds.incrementAndGet(), emitter, new ArrayBlockingQueue<>(this.bufferSize));
+        emitter.onCompletion(() -> this.subscribers.remove(subscriber.id()));
+        emitter.onTimeout(() -> this.evict(subscriber));
+        emitter.onError(error -> this.evict(subscriber));
+
+        boolean resuming = lastEventId != null && !lastEventId.isBlank();
+        long resumeFrom = resuming ? this.parseSequence(lastEventId) : -1;
+        // El registro y la copia del historial van juntos para no perder ni duplicar eventos
+        synchronized (this.history) {
+            if (resuming) {
+                FeedEvent oldest = this.history.peekFirst();
+                // Un id de otra epoca (otro nodo o reinicio) o mayor al actual no indica ninguna posicion de este feed;
+                // uno anterior al historial ya no se puede reponer
+                boolean gap = resumeFrom < 0
+                        || resumeFrom > this.sequence
+                        || (resumeFrom < this.sequence && (oldest == null || oldest.sequence() > resumeFrom + 1));
+                if (gap) {
+                    subscriber.queue().offer(this.event(this.sequence, RESYNC_EVENT, null));
+                } else {
+                    for (FeedEvent event : this.history) {
+                        if (event.sequence() > resumeFrom && !subscriber.queue().offer(event)) {
+                            subscriber.queue().clear();
+                            subscriber.queue().offer(this.event(this.sequence, RESYNC_EVENT, null));
+                            break;
+                        }
+                    }
+                }
+            }
+            this.subscribers.put(subscriber.id(), subscriber);
+        }
+
+        this.schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        this.publish(CHANGE_EVENT, new MovieChangeEventDto(event.movieId(), event.operation(), event.version()));
+    }
+
+    // Un solo evento por lote de votos, con las nuevas clasificaciones por id
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsChanged(MovieRatingsChangedEvent event) {
+        this.publish(RATINGS_EVENT, event.ratings());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(MovieCatalogReloadedEvent event) {
+        this.publish(RELOAD_EVENT, Map.of("changedRows", event.changedRows()));
+    }
+
+    @Scheduled(fixedDelayString = "${platzi-play.movies.stream.heartbeat-interval:15s}")
+    public void heartbeat() {
+        // Los comentarios mantienen viva la conexion a traves de proxies y detectan clientes caidos
+        for (Subscriber subscriber : this.subscribers.values()) {
+            if (subscriber.queue().offer(FeedEvent.HEARTBEAT)) {
+                this.schedule(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return this.subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        this.subscribers.values().forEach(subscriber -> subscriber.emitter().complete());
+        this.subscribers.clear();
+        this.executor.shutdownNow();
+    }
+
+    private void publish(String name, Object data) {
+        synchronized (this.history) {
+            FeedEvent event = this.event(++this.sequence, name, data);
+            if (this.history.size() == this.historySize) {
+                this.history.pollFirst();
+            }
+            this.history.addLast(event);
+
+            for (Subscriber subscriber : this.subscribers.values()) {
+                if (subscriber.queue().offer(event)) {
+                    this.schedule(subscriber);
+                } else {
+                    log.debug("Suscriptor {} del feed de peliculas desconectado por no consumir a tiempo", subscriber.id());
+                    this.evict(subscriber);
+                }
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true)) {
+            this.executor.execute(() -> this.drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            FeedEvent event;
+            while ((event = subscriber.queue().poll()) != null) {
+                subscriber.emitter().send(event.toSse());
+            }
+        } catch (IOException | IllegalStateException e) {
+            this.evict(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // Pudo llegar un evento entre el ultimo poll y liberar la marca
+        this.schedule(subscriber);
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (this.subscribers.remove(subscriber.id()) != null) {
+            subscriber.queue().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    private FeedEvent event(long sequence, String name, Object data) {
+        return new FeedEvent(this.epoch + ID_SEPARATOR + sequence, sequence, name, data);
+    }
+
+    // Secuencia del id si es de esta epoca; -1 si es de otra o no se puede leer
+    private long parseSequence(String lastEventId) {
+        String id = lastEventId.trim();
+        int separator = id.indexOf(ID_SEPARATOR);
+        if (separator < 0 || !id.substring(0, separator).equals(this.epoch)) return -1;
+
+        try {
+            return Long.parseLong(id.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Subscriber(long id, SseEmitter emitter, ArrayBlockingQueue<FeedEvent> queue, AtomicBoolean draining) {
+
+        Subscriber(long id, SseEmitter emitter, ArrayBlockingQueue<FeedEvent> queue) {
+            this(id, emitter, queue, new AtomicBoolean());
+        }
+    }
+
+    private record FeedEvent(String id, long sequence, String name, Object data) {
+        static final FeedEvent HEARTBEAT = new FeedEvent(null, -1, null, null);
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().id(this.id).name(this.name);
+            return this.data == null ? builder.data("{}", MediaType.APPLICATION_JSON) : builder.data(this.data, MediaType.APPLICATION_JSON);
+        }
+    }
+}
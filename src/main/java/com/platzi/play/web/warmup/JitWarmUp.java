@@ -0,0 +1,144 @@
+package com.platzi.play.web.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.service.MovieService;
+import com.platzi.play.web.cache.CatalogResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+/**
+ * Calienta el JIT antes de recibir trafico: repite en el propio proceso las lecturas de GET /movies
+ * y GET /movies/{id} (servicio, repositorio, mapper y serializacion JSON) y solo al terminar marca
+ * la aplicacion como lista. Mientras tanto el probe de readiness responde OUT_OF_SERVICE.
+ * Unas pocas vueltas pasan por la base de datos para calentar Hibernate y el driver; el resto sale
+ * del indice en memoria, asi arrancar varios pods a la vez no descarga miles de lecturas del catalogo
+ * completo sobre la base. Solo se usan lecturas, que ya van en transacciones readOnly.
+ */
+@Component
+@ConditionalOnProperty(prefix = "platzi-play.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class JitWarmUp {
+    private static final Logger log = LoggerFactory.getLogger(JitWarmUp.class);
+
+    private final MovieService movieService;
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final CatalogResponseCache catalogResponseCache;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WarmUpProperties properties;
+    private final LongSupplier nanoTime;
+
+    public JitWarmUp(MovieService movieService, MovieCatalogIndex movieCatalogIndex, CatalogResponseCache catalogResponseCache,
+                     ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, WarmUpProperties properties) {
+        this(movieService, movieCatalogIndex, catalogResponseCache, objectMapper, eventPublisher, properties, System::nanoTime);
+    }
+
+    JitWarmUp(MovieService movieService, MovieCatalogIndex movieCatalogIndex, CatalogResponseCache catalogResponseCache,
+              ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, WarmUpProperties properties, LongSupplier nanoTime) {
+        this.movieService = movieService;
+        this.movieCatalogIndex = movieCatalogIndex;
+        this.catalogResponseCache = catalogResponseCache;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+    }
+
+    // Spring marca ACCEPTING_TRAFFIC despues de todos los listeners de ApplicationReadyEvent
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        AvailabilityChangeEvent.publish(this.eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            this.warmUp();
+        } finally {
+            // Si el calentamiento falla se acepta trafico igual: mejor lento que fuera de servicio
+            AvailabilityChangeEvent.publish(this.eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    /**
+     * @return las iteraciones completadas
+     */
+    public int warmUp() {
+        long start = this.nanoTime.getAsLong();
+        long deadline = start + this.properties.maxDuration().toNanos();
+        long[] ids = this.sampleIds();
+
+        int iterations = 0;
+        List<MovieDto> catalog = List.of();
+        try {
+            while (iterations < this.properties.iterations() && this.nanoTime.getAsLong() - deadline < 0) {
+                long id = ids[iterations % ids.length];
+                if (iterations < this.properties.databaseIterations()) {
+                    catalog = this.readDatabase(id);
+                } else {
+                    this.readIndex(catalog, id);
+                }
+                iterations++;
+            }
+            // Deja lista la respuesta de GET /movies para la primera peticion real
+            this.catalogResponseCache.get();
+        } catch (RuntimeException e) {
+            log.warn("Calentamiento interrumpido tras {} iteraciones: {}", iterations, e.getMessage());
+            return iterations;
+        }
+
+        log.info("Calentamiento terminado: {} iteraciones en {} ms", iterations, (this.nanoTime.getAsLong() - start) / 1_000_000);
+        return iterations;
+    }
+
+    private List<MovieDto> readDatabase(long id) {
+        List<MovieDto> movies = this.movieService.getAll();
+        this.serialize(movies);
+        try {
+            this.serialize(this.movieService.getById(id));
+        } catch (MovieNotFound e) {
+            // Tambien ejercita el camino del 404
+        }
+        return movies;
+    }
+
+    // Si el indice aun no esta listo se vuelve a serializar el ultimo catalogo leido de la base
+    private void readIndex(List<MovieDto> catalog, long id) {
+        if (!this.movieCatalogIndex.isReady()) {
+            this.serialize(catalog);
+            return;
+        }
+        this.serialize(this.movieCatalogIndex.getAll().stream().map(IndexedMovie::movie).toList());
+        this.movieCatalogIndex.get(id).map(IndexedMovie::movie).ifPresent(this::serialize);
+    }
+
+    private void serialize(Object value) {
+        try {
+            this.objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar durante el calentamiento.", e);
+        }
+    }
+
+    // Ids reales del indice; si todavia no existe se prueban los primeros ids
+    private long[] sampleIds() {
+        int size = Math.max(1, this.properties.sampleSize());
+        long[] ids = this.movieCatalogIndex.isReady()
+                ? this.movieCatalogIndex.getAll().stream().mapToLong(IndexedMovie::id).limit(size).toArray()
+                : new long[0];
+        return ids.length > 0 ? ids : LongStream.rangeClosed(1, size).toArray();
+    }
+}
@@ -0,0 +1,18 @@
+package com.platzi.play.web.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// El calentamiento termina al completar iterations vueltas o al pasar maxDuration, lo que ocurra primero.
+// Solo las primeras databaseIterations vueltas van a la base de datos; el resto lee el indice en memoria.
+@ConfigurationProperties(prefix = "platzi-play.warmup")
+public record WarmUpProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2000") int iterations,
+        @DefaultValue("20") int databaseIterations,
+        @DefaultValue("20s") Duration maxDuration,
+        @DefaultValue("16") int sampleSize
+) {
+}
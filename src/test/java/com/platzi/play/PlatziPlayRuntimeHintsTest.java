@@ -0,0 +1,48 @@
+package com.platzi.play;
+
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.service.PlatziPlayAiService;
+import com.platzi.play.persistence.entity.MovieEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlatziPlayRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new PlatziPlayRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // ===================== HINTS TESTS =====================
+    @Test
+    void shouldRegisterProxy_forAiService() {
+        // act & assert
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PlatziPlayAiService.class).test(hints));
+    }
+
+    @Test
+    void shouldRegisterReflection_forGeneratedMapperAndEntities() {
+        // act & assert
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.platzi.play.persistence.mapper.MovieMapperImpl"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MovieEntity.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+    }
+
+    @Test
+    void shouldRegisterBindingHints_forDtos() {
+        // act & assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MovieDto.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("data.sql").test(hints));
+    }
+}
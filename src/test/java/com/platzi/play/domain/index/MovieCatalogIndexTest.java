@@ -0,0 +1,79 @@
+package com.platzi.play.domain.index;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MovieCatalogIndexTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private MovieCatalogIndex movieCatalogIndex;
+
+    @BeforeEach
+    void setUp() {
+        movieCatalogIndex = new MovieCatalogIndex(movieRepository, new StaticListableBeanFactory().getBeanProvider(MovieIndexListener.class));
+        when(movieRepository.getAllById()).thenReturn(Map.of(1L, movie(3.0)));
+        movieCatalogIndex.rebuild();
+    }
+
+    // Test fixtures
+    private static MovieDto movie(double rating) {
+        return new MovieDto("The Matrix", 136, Genre.SCI_FI, LocalDate.of(1999, 3, 31), rating, "D");
+    }
+
+    // ===================== CHANGE TESTS =====================
+    @Test
+    void shouldKeepNewestVersion_whenTwoChangesForSameMovieOverlap() throws Exception {
+        // arrange: la primera lectura trae la version vieja y se demora; la segunda ya ve la nueva
+        CountDownLatch firstReadStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRead = new CountDownLatch(1);
+        when(movieRepository.findAvailableById(1L))
+                .thenAnswer(invocation -> {
+                    firstReadStarted.countDown();
+                    releaseFirstRead.await(2, TimeUnit.SECONDS);
+                    return Optional.of(movie(4.0));
+                })
+                .thenReturn(Optional.of(movie(5.0)));
+
+        // act
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                movieCatalogIndex.onMovieChanged(new MovieChangedEvent(1L, MovieChangedEvent.Operation.UPDATED)));
+        assertTrue(firstReadStarted.await(2, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() ->
+                movieCatalogIndex.onMovieChanged(new MovieChangedEvent(1L, MovieChangedEvent.Operation.UPDATED)));
+        Thread.sleep(50);
+        releaseFirstRead.countDown();
+        first.get(2, TimeUnit.SECONDS);
+        second.get(2, TimeUnit.SECONDS);
+
+        // assert
+        assertEquals(5.0, movieCatalogIndex.get(1L).orElseThrow().movie().rating());
+    }
+
+    // ===================== RATINGS TESTS =====================
+    @Test
+    void shouldApplyBatchedRatings_withoutReadingEachMovie() {
+        // act
+        movieCatalogIndex.onRatingsChanged(new MovieRatingsChangedEvent(Map.of(1L, 4.25, 99L, 2.0)));
+
+        // assert: la pelicula que no esta en el indice se ignora
+        assertEquals(4.25, movieCatalogIndex.get(1L).orElseThrow().movie().rating());
+        assertTrue(movieCatalogIndex.get(99L).isEmpty());
+        verify(movieRepository, never()).findAvailableById(anyLong());
+    }
+}
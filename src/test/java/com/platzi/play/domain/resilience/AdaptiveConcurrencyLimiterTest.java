@@ -0,0 +1,126 @@
+package com.platzi.play.domain.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    // Test fixtures
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 100, 2.0, 0.2, 100, 0.2);
+    }
+
+    // ===================== ACQUIRE TESTS =====================
+    @Test
+    void shouldRejectRequests_whenLimitIsReached() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(5);
+
+        // act
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(true));
+        }
+
+        // assert
+        assertFalse(limiter.tryAcquire(true));
+        assertEquals(5, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldKeepReservedSlots_forHighPriorityRequests() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(false));
+        }
+
+        // act & assert
+        assertFalse(limiter.tryAcquire(false));
+        assertTrue(limiter.tryAcquire(true));
+        assertTrue(limiter.tryAcquire(true));
+        assertFalse(limiter.tryAcquire(true));
+    }
+
+    @Test
+    void shouldFreeSlot_whenRequestIsReleased() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        limiter.tryAcquire(true);
+        limiter.tryAcquire(true);
+
+        // act
+        limiter.release(10 * MILLIS, false);
+
+        // assert
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire(true));
+    }
+
+    // ===================== ADAPTATION TESTS =====================
+    @Test
+    void shouldGrowLimit_whenLatencyIsStableAndLimitIsUsed() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // act
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < limiter.getLimit(); i++) limiter.tryAcquire(true);
+            while (limiter.getInFlight() > 0) limiter.release(10 * MILLIS, false);
+        }
+
+        // assert
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void shouldNotGrowLimit_whenTrafficDoesNotUseIt() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // act
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(true);
+            limiter.release(10 * MILLIS, false);
+        }
+
+        // assert
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void shouldShrinkLimit_whenLatencySpikes() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(true);
+            limiter.release(10 * MILLIS, false);
+        }
+
+        // act
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(true);
+            limiter.release(200 * MILLIS, false);
+        }
+
+        // assert
+        assertTrue(limiter.getLimit() < 50);
+    }
+
+    @Test
+    void shouldShrinkLimit_whenRequestsFail_butNotBelowMinimum() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // act
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(true);
+            limiter.release(10 * MILLIS, true);
+        }
+
+        // assert
+        assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,110 @@
+package com.platzi.play.domain.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(10), now::get);
+    }
+
+    // ===================== OPEN TESTS =====================
+    @Test
+    void shouldStayClosed_untilMinimumCallsAreReached() {
+        // act
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldOpen_whenFailureRateReachesThreshold() {
+        // act
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldForgetOldOutcomes_whenWindowSlides() {
+        // arrange
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        // act
+        circuitBreaker.onFailure();
+
+        // assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    // ===================== HALF OPEN TESTS =====================
+    @Test
+    void shouldAllowSingleTrial_afterOpenDuration() {
+        // arrange
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // act & assert
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldClose_whenTrialSucceeds() {
+        // arrange
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        circuitBreaker.tryAcquire();
+
+        // act
+        circuitBreaker.onSuccess();
+
+        // assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReopen_whenTrialFails() {
+        // arrange
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        circuitBreaker.tryAcquire();
+
+        // act
+        circuitBreaker.onFailure();
+
+        // assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.platzi.play.domain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.IdempotencyRecord;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.IdempotencyKeyReusedException;
+import com.platzi.play.domain.exception.IdempotencyRequestInProgressException;
+import com.platzi.play.domain.exception.InvalidIdempotencyKeyException;
+import com.platzi.play.domain.repository.IdempotencyRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger created = new AtomicInteger();
+
+    // Test fixtures
+    private IdempotencyService service(IdempotencyRepository repository, int maxEntries, Clock clock) {
+        return new IdempotencyService(objectMapper, repository, Duration.ofHours(1), maxEntries, Duration.ofMillis(200), Duration.ofMinutes(15), clock);
+    }
+
+    private IdempotencyService service() {
+        return service(null, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static MovieDto movie(String title) {
+        return new MovieDto(title, 120, Genre.SCI_FI, LocalDate.of(1999, 3, 31), 4.8, "D");
+    }
+
+    private MovieDto create(MovieDto movie) {
+        created.incrementAndGet();
+        return movie;
+    }
+
+    // ===================== EXECUTE TESTS =====================
+    @Test
+    void shouldRunActionOnce_andReplayResponse_forSameKey() {
+        // arrange
+        IdempotencyService service = service();
+        MovieDto movie = movie("The Matrix");
+
+        // act
+        IdempotencyService.Result<MovieDto> first = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+        IdempotencyService.Result<MovieDto> retry = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(movie, retry.body());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void shouldReject_whenKeyIsReusedWithDifferentRequest() {
+        // arrange
+        IdempotencyService service = service();
+        service.execute("movies", "k1", movie("The Matrix"), MovieDto.class, () -> create(movie("The Matrix")));
+
+        // act & assert
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> service.execute("movies", "k1", movie("Heat"), MovieDto.class, () -> create(movie("Heat"))));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void shouldKeepScopesApart() {
+        // arrange
+        IdempotencyService service = service();
+        MovieDto movie = movie("The Matrix");
+
+        // act
+        service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+        IdempotencyService.Result<MovieDto> other = service.execute("ingest", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertFalse(other.replayed());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void shouldRunAgain_whenPreviousAttemptFailed() {
+        // arrange
+        IdempotencyService service = service();
+        MovieDto movie = movie("The Matrix");
+        assertThrows(IllegalStateException.class, () -> service.execute("movies", "k1", movie, MovieDto.class, () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        // act
+        IdempotencyService.Result<MovieDto> retry = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertFalse(retry.replayed());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void shouldRejectInvalidKeys() {
+        // arrange
+        IdempotencyService service = service();
+
+        // act & assert
+        assertThrows(InvalidIdempotencyKeyException.class, () -> service.execute("movies", " ", null, MovieDto.class, () -> null));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> service.execute("movies", "x".repeat(256), null, MovieDto.class, () -> null));
+    }
+
+    // ===================== CONCURRENCY TESTS =====================
+    @Test
+    void shouldWaitForOriginal_whenRetryArrivesWhileInProgress() throws Exception {
+        // arrange
+        IdempotencyService service = service();
+        MovieDto movie = movie("The Matrix");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyService.Result<MovieDto>> original = CompletableFuture.supplyAsync(() ->
+                service.execute("movies", "k1", movie, MovieDto.class, () -> {
+                    started.countDown();
+                    try {
+                        release.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return create(movie);
+                }));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        // act
+        CompletableFuture<IdempotencyService.Result<MovieDto>> retry = CompletableFuture.supplyAsync(() ->
+                service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie)));
+        Thread.sleep(50);
+        release.countDown();
+
+        // assert
+        assertFalse(original.get(2, TimeUnit.SECONDS).replayed());
+        assertTrue(retry.get(2, TimeUnit.SECONDS).replayed());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void shouldAnswerInProgress_whenOriginalTakesLongerThanWaitTimeout() throws Exception {
+        // arrange
+        IdempotencyService service = service();
+        MovieDto movie = movie("The Matrix");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> service.execute("movies", "k1", movie, MovieDto.class, () -> {
+            started.countDown();
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return movie;
+        }));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        // act & assert
+        assertThrows(IdempotencyRequestInProgressException.class,
+                () -> service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie)));
+        release.countDown();
+    }
+
+    // ===================== EXPIRY TESTS =====================
+    @Test
+    void shouldRunAgain_afterTtl() {
+        // arrange
+        Instant[] now = {NOW};
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now[0];
+            }
+        };
+        IdempotencyService service = service(null, 100, clock);
+        MovieDto movie = movie("The Matrix");
+        service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // act
+        now[0] = NOW.plus(Duration.ofHours(2));
+        service.purgeExpired();
+        IdempotencyService.Result<MovieDto> later = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertFalse(later.replayed());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void shouldStayBounded_evictingOldestFinishedEntries() {
+        // arrange
+        IdempotencyService service = service(null, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+        MovieDto movie = movie("The Matrix");
+
+        // act
+        service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+        service.execute("movies", "k2", movie, MovieDto.class, () -> create(movie));
+        service.execute("movies", "k3", movie, MovieDto.class, () -> create(movie));
+        IdempotencyService.Result<MovieDto> newest = service.execute("movies", "k3", movie, MovieDto.class, () -> create(movie));
+        IdempotencyService.Result<MovieDto> evicted = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertTrue(newest.replayed());
+        assertFalse(evicted.replayed());
+    }
+
+    // ===================== PERSISTENCE TESTS =====================
+    @Test
+    void shouldReplayFromRepository_whenKeyIsNotInMemory() throws Exception {
+        // arrange
+        IdempotencyRepository repository = mock(IdempotencyRepository.class);
+        when(repository.claim(eq("movies:k1"), any(), any(), any())).thenReturn(true, false);
+        IdempotencyService seed = service(repository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        MovieDto movie = movie("The Matrix");
+        seed.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        IdempotencyRecord stored = captureCompleted(repository);
+        when(repository.find(eq("movies:k1"), any())).thenReturn(Optional.of(stored));
+        IdempotencyService otherNode = service(repository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // act
+        IdempotencyService.Result<MovieDto> retry = otherNode.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertTrue(retry.replayed());
+        assertEquals(movie, retry.body());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void shouldWaitForOtherNode_whenItHoldsTheClaim() {
+        // arrange: otro nodo reservo la clave y termina mientras este espera
+        IdempotencyRepository repository = mock(IdempotencyRepository.class);
+        MovieDto movie = movie("The Matrix");
+        IdempotencyService service = service(repository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        String fingerprint = fingerprintOf(movie);
+        byte[] response = assertDoesNotThrow(() -> objectMapper.writeValueAsBytes(movie));
+        when(repository.find(eq("movies:k1"), any())).thenReturn(
+                Optional.of(new IdempotencyRecord("movies:k1", fingerprint, null, NOW.plus(Duration.ofMinutes(15)))),
+                Optional.of(new IdempotencyRecord("movies:k1", fingerprint, response, NOW.plus(Duration.ofHours(1)))));
+
+        // act
+        IdempotencyService.Result<MovieDto> retry = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertTrue(retry.replayed());
+        assertEquals(movie, retry.body());
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    void shouldAnswerInProgress_whenOtherNodeHoldsClaimPastWaitTimeout() {
+        // arrange
+        IdempotencyRepository repository = mock(IdempotencyRepository.class);
+        MovieDto movie = movie("The Matrix");
+        IdempotencyService service = service(repository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        String fingerprint = fingerprintOf(movie);
+        when(repository.find(eq("movies:k1"), any())).thenReturn(
+                Optional.of(new IdempotencyRecord("movies:k1", fingerprint, null, NOW.plus(Duration.ofMinutes(15)))));
+
+        // act & assert
+        assertThrows(IdempotencyRequestInProgressException.class,
+                () -> service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie)));
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    void shouldReleaseClaim_whenActionFails() {
+        // arrange
+        IdempotencyRepository repository = mock(IdempotencyRepository.class);
+        when(repository.claim(eq("movies:k1"), any(), any(), any())).thenReturn(true);
+        IdempotencyService service = service(repository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // act
+        assertThrows(IllegalStateException.class, () -> service.execute("movies", "k1", movie("The Matrix"), MovieDto.class, () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        // assert
+        verify(repository).release("movies:k1");
+        verify(repository, never()).complete(any());
+    }
+
+    @Test
+    void shouldStillAnswer_whenRepositoryFails() {
+        // arrange
+        IdempotencyRepository repository = mock(IdempotencyRepository.class);
+        when(repository.claim(any(), any(), any(), any())).thenThrow(new IllegalStateException("db down"));
+        doThrow(new IllegalStateException("db down")).when(repository).complete(any());
+        IdempotencyService service = service(repository, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        MovieDto movie = movie("The Matrix");
+
+        // act
+        IdempotencyService.Result<MovieDto> result = service.execute("movies", "k1", movie, MovieDto.class, () -> create(movie));
+
+        // assert
+        assertFalse(result.replayed());
+        assertEquals(movie, result.body());
+    }
+
+    private static IdempotencyRecord captureCompleted(IdempotencyRepository repository) {
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).complete(captor.capture());
+        return captor.getValue();
+    }
+
+    // La huella que calcula el servicio para el pedido, tomada de lo que guarda al terminar
+    private String fingerprintOf(MovieDto movie) {
+        IdempotencyRepository probe = mock(IdempotencyRepository.class);
+        when(probe.claim(any(), any(), any(), any())).thenReturn(true);
+        IdempotencyService probing = service(probe, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+        probing.execute("movies", "k1", movie, MovieDto.class, () -> movie);
+        return captureCompleted(probe).fingerprint();
+    }
+}
@@ -0,0 +1,116 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocalMovieRecommenderTest {
+
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
+    @Mock
+    private MovieService movieService;
+
+    private LocalMovieRecommender localMovieRecommender;
+
+    @BeforeEach
+    void setUp() {
+        localMovieRecommender = new LocalMovieRecommender(movieCatalogIndex, movieService);
+    }
+
+    // Test fixtures
+    private MovieDto createMovie(String title, Genre genre, int duration, int year, Double rating) {
+        return new MovieDto(title, duration, genre, LocalDate.of(year, 1, 1), rating, "D");
+    }
+
+    private void givenCatalog(MovieDto... movies) {
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        long id = 1;
+        List<IndexedMovie> indexed = new ArrayList<>();
+        for (MovieDto movie : movies) {
+            indexed.add(new IndexedMovie(id++, movie));
+        }
+        when(movieCatalogIndex.getAll()).thenReturn(indexed);
+    }
+
+    private static List<String> titles(List<MovieDto> movies) {
+        return movies.stream().map(MovieDto::title).toList();
+    }
+
+    // ===================== RANK TESTS =====================
+    @Test
+    void shouldRankMatchingGenreFirst_byRating() {
+        // arrange
+        givenCatalog(
+                createMovie("Shrek", Genre.ANIMATED, 90, 2001, 4.9),
+                createMovie("It", Genre.HORROR, 135, 2017, 4.0),
+                createMovie("Alien", Genre.HORROR, 117, 1979, 4.7)
+        );
+
+        // act
+        List<MovieDto> ranked = localMovieRecommender.rank("Quiero algo que me dé MIEDO");
+
+        // assert
+        assertEquals(List.of("Alien", "It", "Shrek"), titles(ranked));
+    }
+
+    @Test
+    void shouldReturnAtMostThreeMovies_andSkipMentionedTitles() {
+        // arrange
+        givenCatalog(
+                createMovie("Heat", Genre.ACTION, 170, 1995, 4.6),
+                createMovie("Ronin", Genre.ACTION, 122, 1998, 4.0),
+                createMovie("Speed", Genre.ACTION, 116, 1994, 3.9),
+                createMovie("Die Hard", Genre.ACTION, 132, 1988, 4.5)
+        );
+
+        // act
+        List<MovieDto> ranked = localMovieRecommender.rank("Me encantó Heat, busco más acción");
+
+        // assert
+        assertEquals(List.of("Die Hard", "Ronin", "Speed"), titles(ranked));
+    }
+
+    @Test
+    void shouldPreferRecentMovies_whenAskedForNewReleases() {
+        // arrange
+        givenCatalog(
+                createMovie("The Thing", Genre.HORROR, 109, 1982, 4.6),
+                createMovie("Hereditary", Genre.HORROR, 127, 2018, 4.2)
+        );
+
+        // act
+        List<MovieDto> ranked = localMovieRecommender.rank("terror reciente");
+
+        // assert
+        assertEquals("Hereditary", ranked.getFirst().title());
+    }
+
+    @Test
+    void shouldUseMovieService_whenIndexIsNotReady() {
+        // arrange
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+        when(movieService.getAll()).thenReturn(List.of(createMovie("Shrek", Genre.ANIMATED, 90, 2001, 4.9)));
+
+        // act
+        String suggestion = localMovieRecommender.recommend("algo para ver en familia");
+
+        // assert
+        assertTrue(suggestion.contains("1. Shrek (ANIMATED, 2001) - clasificacion 4.9"));
+    }
+}
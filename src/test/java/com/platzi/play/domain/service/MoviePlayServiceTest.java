@@ -0,0 +1,154 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MoviePlayDelta;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MoviePlaysDto;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.repository.MoviePlayRepository;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MoviePlayServiceTest {
+
+    @Mock
+    private MoviePlayRepository moviePlayRepository;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
+    private MoviePlayService moviePlayService;
+
+    @BeforeEach
+    void setUp() {
+        moviePlayService = new MoviePlayService(moviePlayRepository, movieRepository, movieCatalogIndex, Duration.ZERO);
+    }
+
+    // Test fixtures
+    private void givenIndexedMovie(long id, String title) {
+        lenient().when(movieCatalogIndex.isReady()).thenReturn(true);
+        lenient().when(movieCatalogIndex.get(id)).thenReturn(Optional.of(
+                new IndexedMovie(id, new MovieDto(title, 120, Genre.ACTION, LocalDate.of(2000, 1, 1), null, "D"))));
+    }
+
+    // ===================== PLAY TESTS =====================
+    @Test
+    void shouldCountPlaysOnTopOfPersistedTotals() {
+        // arrange
+        givenIndexedMovie(1L, "Heat");
+        when(moviePlayRepository.getPlayCounts()).thenReturn(Map.of(1L, 10L));
+        moviePlayService.loadCounts();
+
+        // act
+        moviePlayService.play(1L);
+        moviePlayService.play(1L);
+
+        // assert
+        assertEquals(12, moviePlayService.getPlays(1L));
+    }
+
+    @Test
+    void shouldThrowMovieNotFound_whenMovieIsNotAvailable() {
+        // arrange
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.get(42L)).thenReturn(Optional.empty());
+
+        // act & assert
+        assertThrows(MovieNotFound.class, () -> moviePlayService.play(42L));
+    }
+
+    // ===================== FLUSH TESTS =====================
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushOnlyPendingDeltas() {
+        // arrange
+        givenIndexedMovie(1L, "Heat");
+        moviePlayService.play(1L);
+        moviePlayService.play(1L);
+        moviePlayService.flush();
+        moviePlayService.play(1L);
+
+        // act
+        moviePlayService.flush();
+
+        // assert
+        ArgumentCaptor<Collection<MoviePlayDelta>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(moviePlayRepository, times(2)).addPlays(captor.capture());
+        assertEquals(List.of(new MoviePlayDelta(1L, 2)), List.copyOf(captor.getAllValues().get(0)));
+        assertEquals(List.of(new MoviePlayDelta(1L, 1)), List.copyOf(captor.getAllValues().get(1)));
+        assertEquals(3, moviePlayService.getPlays(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRetryDeltas_whenFlushFails() {
+        // arrange
+        givenIndexedMovie(1L, "Heat");
+        moviePlayService.play(1L);
+        doThrow(new IllegalStateException("db down")).doNothing().when(moviePlayRepository).addPlays(anyCollection());
+        moviePlayService.flush();
+
+        // act
+        moviePlayService.flush();
+
+        // assert
+        ArgumentCaptor<Collection<MoviePlayDelta>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(moviePlayRepository, times(2)).addPlays(captor.capture());
+        assertEquals(List.of(new MoviePlayDelta(1L, 1)), List.copyOf(captor.getAllValues().get(1)));
+    }
+
+    // ===================== MOST PLAYED TESTS =====================
+    @Test
+    void shouldRankMostPlayedFromMemory() {
+        // arrange
+        givenIndexedMovie(1L, "Heat");
+        givenIndexedMovie(2L, "Ronin");
+        moviePlayService.play(1L);
+        moviePlayService.play(2L);
+        moviePlayService.play(2L);
+
+        // act
+        List<MoviePlaysDto> mostPlayed = moviePlayService.getMostPlayed(10);
+
+        // assert
+        assertEquals(List.of(new MoviePlaysDto(2L, "Ronin", 2), new MoviePlaysDto(1L, "Heat", 1)), mostPlayed);
+        verify(moviePlayRepository, never()).getPlayCounts();
+    }
+
+    @Test
+    void shouldForgetCounter_whenMovieIsDeleted() {
+        // arrange
+        givenIndexedMovie(1L, "Heat");
+        moviePlayService.play(1L);
+
+        // act
+        moviePlayService.onMovieChanged(new MovieChangedEvent(1L, MovieChangedEvent.Operation.DELETED));
+
+        // assert
+        assertEquals(0, moviePlayService.getPlays(1L));
+        assertTrue(moviePlayService.getMostPlayed(10).isEmpty());
+    }
+}
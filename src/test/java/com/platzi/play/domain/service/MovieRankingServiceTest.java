@@ -0,0 +1,109 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieRankingServiceTest {
+
+    private MovieRankingService movieRankingService;
+
+    @BeforeEach
+    void setUp() {
+        movieRankingService = new MovieRankingService();
+    }
+
+    // Test fixtures
+    private IndexedMovie createIndexedMovie(long id, String title, Genre genre, LocalDate releaseDate, Double rating) {
+        return new IndexedMovie(id, new MovieDto(title, 120, genre, releaseDate, rating, "D"));
+    }
+
+    private static List<String> titles(List<MovieDto> movies) {
+        return movies.stream().map(MovieDto::title).toList();
+    }
+
+    // ===================== ORDER TESTS =====================
+    @Test
+    void shouldOrderByRatingThenMostRecentRelease() {
+        // arrange
+        movieRankingService.onIndexRebuilt(List.of(
+                createIndexedMovie(1L, "Old", Genre.HORROR, LocalDate.of(1980, 1, 1), 4.5),
+                createIndexedMovie(2L, "New", Genre.HORROR, LocalDate.of(2020, 1, 1), 4.5),
+                createIndexedMovie(3L, "Best", Genre.DRAMA, LocalDate.of(1990, 1, 1), 5.0),
+                createIndexedMovie(4L, "Unrated", Genre.HORROR, LocalDate.of(2021, 1, 1), null)
+        ));
+
+        // act & assert
+        assertEquals(List.of("Best", "New", "Old", "Unrated"), titles(movieRankingService.getTop(null, 10)));
+        assertEquals(List.of("New", "Old"), titles(movieRankingService.getTop(Genre.HORROR, 2)));
+        assertTrue(movieRankingService.getTop(Genre.COMEDY, 5).isEmpty());
+    }
+
+    // ===================== INCREMENTAL TESTS =====================
+    @Test
+    void shouldReposition_whenMovieRatingChanges() {
+        // arrange
+        IndexedMovie before = createIndexedMovie(1L, "Climber", Genre.ACTION, LocalDate.of(2000, 1, 1), 2.0);
+        movieRankingService.onIndexRebuilt(List.of(before, createIndexedMovie(2L, "Leader", Genre.ACTION, LocalDate.of(2000, 1, 1), 4.0)));
+
+        // act
+        movieRankingService.onMovieIndexed(before, createIndexedMovie(1L, "Climber", Genre.ACTION, LocalDate.of(2000, 1, 1), 4.9));
+
+        // assert
+        assertEquals(List.of("Climber", "Leader"), titles(movieRankingService.getTop(Genre.ACTION, 10)));
+        assertEquals(2, movieRankingService.getTop(null, 10).size());
+    }
+
+    @Test
+    void shouldDropMovie_whenMovieIsDeleted() {
+        // arrange
+        IndexedMovie movie = createIndexedMovie(1L, "Gone", Genre.COMEDY, LocalDate.of(2000, 1, 1), 3.0);
+        movieRankingService.onIndexRebuilt(List.of(movie));
+
+        // act
+        movieRankingService.onMovieIndexed(movie, null);
+
+        // assert
+        assertTrue(movieRankingService.getTop(null, 10).isEmpty());
+        assertTrue(movieRankingService.getTop(Genre.COMEDY, 10).isEmpty());
+    }
+
+    // ===================== REBUILD TESTS =====================
+    @Test
+    void shouldKeepServingPreviousRanking_whileRebuilding() {
+        // arrange
+        movieRankingService.onIndexRebuilt(List.of(createIndexedMovie(1L, "Old", Genre.DRAMA, LocalDate.of(2000, 1, 1), 4.0)));
+        List<IndexedMovie> reloaded = List.of(createIndexedMovie(2L, "New", Genre.DRAMA, LocalDate.of(2000, 1, 1), 4.5));
+        List<List<String>> seenDuringRebuild = new ArrayList<>();
+        Collection<IndexedMovie> observed = new AbstractCollection<>() {
+            @Override
+            public Iterator<IndexedMovie> iterator() {
+                seenDuringRebuild.add(titles(movieRankingService.getTop(null, 10)));
+                return reloaded.iterator();
+            }
+
+            @Override
+            public int size() {
+                return reloaded.size();
+            }
+        };
+
+        // act
+        movieRankingService.onIndexRebuilt(observed);
+
+        // assert
+        assertEquals(List.of(List.of("Old")), seenDuringRebuild);
+        assertEquals(List.of("New"), titles(movieRankingService.getTop(null, 10)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MovieRatingDelta;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.repository.MovieRatingRepository;
+import com.platzi.play.domain.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieRatingServiceTest {
+
+    @Mock
+    private MovieRatingRepository movieRatingRepository;
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
+    private MovieRatingService movieRatingService;
+
+    @BeforeEach
+    void setUp() {
+        movieRatingService = new MovieRatingService(movieRatingRepository, movieRepository, movieCatalogIndex, 1_000_000);
+    }
+
+    // Test fixtures
+    private void givenIndexedMovie(long id) {
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.get(id)).thenReturn(Optional.of(
+                new IndexedMovie(id, new MovieDto("Movie " + id, 120, Genre.DRAMA, LocalDate.of(2000, 1, 1), null, "D"))));
+    }
+
+    // ===================== RATE TESTS =====================
+    @Test
+    void shouldAccumulateVotesWithoutWriting_untilFlush() {
+        // arrange
+        givenIndexedMovie(1L);
+
+        // act
+        movieRatingService.rate(1L, 5);
+        movieRatingService.rate(1L, 3);
+
+        // assert
+        assertEquals(2, movieRatingService.pendingVotes());
+        verifyNoInteractions(movieRatingRepository);
+    }
+
+    @Test
+    void shouldThrowMovieNotFound_whenMovieIsNotAvailable() {
+        // arrange
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+        when(movieRepository.findAvailableById(99L)).thenReturn(Optional.empty());
+
+        // act & assert
+        assertThrows(MovieNotFound.class, () -> movieRatingService.rate(99L, 4));
+        assertEquals(0, movieRatingService.pendingVotes());
+    }
+
+    // ===================== FLUSH TESTS =====================
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushOneDeltaPerMovie_whenFlushRuns() {
+        // arrange
+        givenIndexedMovie(1L);
+        givenIndexedMovie(2L);
+        movieRatingService.rate(1L, 5);
+        movieRatingService.rate(1L, 3);
+        movieRatingService.rate(2L, 1);
+
+        // act
+        movieRatingService.flush();
+
+        // assert
+        ArgumentCaptor<Collection<MovieRatingDelta>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(movieRatingRepository, times(1)).addRatings(captor.capture());
+        assertTrue(captor.getValue().containsAll(List.of(new MovieRatingDelta(1L, 8, 2), new MovieRatingDelta(2L, 1, 1))));
+        assertEquals(2, captor.getValue().size());
+        assertEquals(0, movieRatingService.pendingVotes());
+    }
+
+    @Test
+    void shouldKeepVotesPending_whenFlushFails() {
+        // arrange
+        givenIndexedMovie(1L);
+        movieRatingService.rate(1L, 4);
+        doThrow(new IllegalStateException("db down")).when(movieRatingRepository).addRatings(anyCollection());
+
+        // act
+        movieRatingService.flush();
+
+        // assert
+        assertEquals(1, movieRatingService.pendingVotes());
+    }
+}
@@ -1,19 +1,29 @@
 package com.platzi.play.domain.service;
 
 import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MovieSyncToken;
+import com.platzi.play.domain.dto.MovieChangesDto;
 import com.platzi.play.domain.dto.MovieDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.exception.InvalidSyncTokenException;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
 import com.platzi.play.domain.repository.MovieRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +35,9 @@ class MovieServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
     @InjectMocks
     private MovieService movieService;
 
@@ -127,6 +140,77 @@ class MovieServiceTest {
         verify(movieRepository, times(1)).getById(movieId);
     }
 
+    // ===================== DEGRADED READ TESTS =====================
+    @Test
+    void shouldServeCatalogFromIndex_whenDatabaseIsDown() {
+        // arrange
+        MovieDto movie = createTestMovieDto();
+        when(movieRepository.getAll()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.getAll()).thenReturn(List.of(new IndexedMovie(1L, movie)));
+
+        // act
+        List<MovieDto> result = movieService.getAll();
+
+        // assert
+        assertEquals(List.of(movie), result);
+    }
+
+    @Test
+    void shouldServeMovieFromIndex_whenDatabaseIsDown() {
+        // arrange
+        MovieDto movie = createTestMovieDto();
+        when(movieRepository.getById(1L)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.get(1L)).thenReturn(Optional.of(new IndexedMovie(1L, movie)));
+        when(movieCatalogIndex.get(2L)).thenReturn(Optional.empty());
+        when(movieRepository.getById(2L)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // act & assert
+        assertEquals(movie, movieService.getById(1L));
+        assertThrows(MovieNotFound.class, () -> movieService.getById(2L));
+    }
+
+    @Test
+    void shouldServeCatalogFromIndex_whenTransactionCannotBeOpened() {
+        // arrange: con la base caida la transaccion readOnly falla antes de llegar al repositorio
+        MovieDto movie = createTestMovieDto();
+        when(movieRepository.getAll()).thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+        when(movieRepository.getById(1L)).thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.getAll()).thenReturn(List.of(new IndexedMovie(1L, movie)));
+        when(movieCatalogIndex.get(1L)).thenReturn(Optional.of(new IndexedMovie(1L, movie)));
+
+        // act & assert
+        assertEquals(List.of(movie), movieService.getAll());
+        assertEquals(movie, movieService.getById(1L));
+    }
+
+    @Test
+    void shouldNotQueryDatabase_whileServingUnreconciledSnapshot() {
+        // arrange
+        MovieDto movie = createTestMovieDto();
+        when(movieCatalogIndex.isServingSnapshot()).thenReturn(true);
+        when(movieCatalogIndex.getAll()).thenReturn(List.of(new IndexedMovie(1L, movie)));
+        when(movieCatalogIndex.get(1L)).thenReturn(Optional.of(new IndexedMovie(1L, movie)));
+
+        // act & assert
+        assertEquals(List.of(movie), movieService.getAll());
+        assertEquals(movie, movieService.getById(1L));
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void shouldPropagateDatabaseError_whenIndexIsNotReady() {
+        // arrange
+        when(movieRepository.getAll()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+
+        // act & assert
+        assertThrows(DataAccessResourceFailureException.class, () -> movieService.getAll());
+        verify(movieCatalogIndex, never()).getAll();
+    }
+
     // ===================== ADD TESTS =====================
     @Test
     void shouldCreateMovie_whenValidMovieDtoProvided() {
@@ -274,5 +358,38 @@ class MovieServiceTest {
         verify(movieRepository, times(1)).delete(5L);
     }
 
-}
+    // ===================== CHANGES TESTS =====================
+    @Test
+    void shouldStartFromBeginning_whenTokenIsMissing() {
+        // arrange
+        MovieChangesDto expected = new MovieChangesDto(Collections.emptyList(), MovieSyncToken.START.encode(), false);
+        when(movieRepository.getChangesSince(MovieSyncToken.START, 100)).thenReturn(expected);
+
+        // act
+        MovieChangesDto result = movieService.getChangesSince(null, 100);
+
+        // assert
+        assertSame(expected, result);
+    }
 
+    @Test
+    void shouldDecodeToken_whenTokenWasIssuedBefore() {
+        // arrange
+        MovieSyncToken token = new MovieSyncToken(Instant.parse("2026-03-01T10:15:30.123456Z"), 42L, Instant.parse("2026-02-01T00:00:00Z"), 7L);
+        when(movieRepository.getChangesSince(token, 100)).thenReturn(new MovieChangesDto(Collections.emptyList(), token.encode(), false));
+
+        // act
+        movieService.getChangesSince(token.encode(), 100);
+
+        // assert
+        verify(movieRepository, times(1)).getChangesSince(token, 100);
+    }
+
+    @Test
+    void shouldThrowException_whenTokenIsInvalid() {
+        // act & assert
+        assertThrows(InvalidSyncTokenException.class, () -> movieService.getChangesSince("not-a-token", 100));
+        verify(movieRepository, never()).getChangesSince(any(), anyInt());
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSimilarityServiceTest {
+
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
+    private MovieSimilarityService movieSimilarityService;
+    private final Map<Long, IndexedMovie> catalog = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        movieSimilarityService = new MovieSimilarityService(movieCatalogIndex);
+        lenient().when(movieCatalogIndex.get(anyLong())).thenAnswer(invocation -> Optional.ofNullable(catalog.get(invocation.<Long>getArgument(0))));
+    }
+
+    // Test fixtures
+    private IndexedMovie createIndexedMovie(long id, String title, Genre genre, int duration, int year, double rating) {
+        IndexedMovie movie = new IndexedMovie(id, new MovieDto(title, duration, genre, LocalDate.of(year, 1, 1), rating, "D"));
+        catalog.put(id, movie);
+        return movie;
+    }
+
+    private static List<String> titles(List<MovieDto> movies) {
+        return movies.stream().map(MovieDto::title).toList();
+    }
+
+    // ===================== SIMILAR TESTS =====================
+    @Test
+    void shouldPreferSameGenreAndCloseFeatures() {
+        // arrange
+        movieSimilarityService.onIndexRebuilt(List.of(
+                createIndexedMovie(1L, "The Matrix", Genre.SCI_FI, 136, 1999, 4.8),
+                createIndexedMovie(2L, "Dark City", Genre.SCI_FI, 100, 1998, 4.2),
+                createIndexedMovie(3L, "Gattaca", Genre.SCI_FI, 130, 1997, 4.5),
+                createIndexedMovie(4L, "Heat", Genre.ACTION, 136, 1999, 4.8)
+        ));
+
+        // act
+        List<MovieDto> similar = movieSimilarityService.getSimilar(1L, 2);
+
+        // assert
+        assertEquals(List.of("Gattaca", "Dark City"), titles(similar));
+    }
+
+    @Test
+    void shouldLookIntoOtherGenres_whenOwnGenreHasTooFewMovies() {
+        // arrange
+        movieSimilarityService.onIndexRebuilt(List.of(
+                createIndexedMovie(1L, "It", Genre.HORROR, 135, 2017, 4.0),
+                createIndexedMovie(2L, "Shrek", Genre.ANIMATED, 90, 2001, 4.5),
+                createIndexedMovie(3L, "Se7en", Genre.DRAMA, 127, 1995, 4.6)
+        ));
+
+        // act
+        List<MovieDto> similar = movieSimilarityService.getSimilar(1L, 5);
+
+        // assert
+        assertEquals(List.of("Shrek", "Se7en"), titles(similar));
+    }
+
+    @Test
+    void shouldFollowIncrementalChanges() {
+        // arrange
+        IndexedMovie reference = createIndexedMovie(1L, "Alien", Genre.HORROR, 117, 1979, 4.7);
+        IndexedMovie removed = createIndexedMovie(2L, "The Thing", Genre.HORROR, 109, 1982, 4.6);
+        movieSimilarityService.onIndexRebuilt(List.of(reference, removed));
+
+        // act
+        movieSimilarityService.onMovieIndexed(removed, null);
+        movieSimilarityService.onMovieIndexed(null, createIndexedMovie(3L, "Aliens", Genre.HORROR, 137, 1986, 4.6));
+
+        // assert
+        assertEquals(List.of("Aliens"), titles(movieSimilarityService.getSimilar(1L, 5)));
+    }
+
+    @Test
+    void shouldThrowMovieNotFound_whenMovieIsNotIndexed() {
+        // act & assert
+        assertThrows(MovieNotFound.class, () -> movieSimilarityService.getSimilar(404L, 5));
+    }
+}
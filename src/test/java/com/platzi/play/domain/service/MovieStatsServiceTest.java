@@ -0,0 +1,97 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MovieStatsDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieStatsServiceTest {
+
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
+    private MovieStatsService movieStatsService;
+
+    @BeforeEach
+    void setUp() {
+        movieStatsService = new MovieStatsService(movieCatalogIndex);
+    }
+
+    // Test fixtures
+    private IndexedMovie createIndexedMovie(long id, Genre genre, int duration, int year, Double rating) {
+        return new IndexedMovie(id, new MovieDto("Movie " + id, duration, genre, LocalDate.of(year, 1, 1), rating, "D"));
+    }
+
+    // ===================== REBUILD TESTS =====================
+    @Test
+    void shouldAggregateCatalog_whenIndexIsRebuilt() {
+        // act
+        movieStatsService.onIndexRebuilt(List.of(
+                createIndexedMovie(1L, Genre.SCI_FI, 136, 1999, 4.8),
+                createIndexedMovie(2L, Genre.SCI_FI, 148, 2010, 4.2),
+                createIndexedMovie(3L, Genre.HORROR, 95, 1999, null)
+        ));
+
+        // assert
+        MovieStatsDto stats = movieStatsService.getStats();
+        assertEquals(3, stats.total());
+        assertEquals(2, stats.genres().get(Genre.SCI_FI).count());
+        assertEquals(4.5, stats.genres().get(Genre.SCI_FI).averageRating());
+        assertEquals(1, stats.genres().get(Genre.HORROR).count());
+        assertNull(stats.genres().get(Genre.HORROR).averageRating());
+        assertEquals(0, stats.genres().get(Genre.DRAMA).count());
+        assertEquals(2L, stats.durationDistribution().get("120-149"));
+        assertEquals(1L, stats.durationDistribution().get("90-119"));
+        assertEquals(2L, stats.releasesPerYear().get(1999));
+    }
+
+    // ===================== INCREMENTAL TESTS =====================
+    @Test
+    void shouldMoveContribution_whenMovieIsUpdated() {
+        // arrange
+        IndexedMovie before = createIndexedMovie(1L, Genre.SCI_FI, 136, 1999, 4.8);
+        movieStatsService.onIndexRebuilt(List.of(before));
+        movieStatsService.getStats();
+
+        // act
+        movieStatsService.onMovieIndexed(before, createIndexedMovie(1L, Genre.DRAMA, 200, 2001, 3.0));
+
+        // assert
+        MovieStatsDto stats = movieStatsService.getStats();
+        assertEquals(1, stats.total());
+        assertEquals(0, stats.genres().get(Genre.SCI_FI).count());
+        assertNull(stats.genres().get(Genre.SCI_FI).averageRating());
+        assertEquals(3.0, stats.genres().get(Genre.DRAMA).averageRating());
+        assertEquals(1L, stats.durationDistribution().get("180+"));
+        assertFalse(stats.releasesPerYear().containsKey(1999));
+        assertEquals(1L, stats.releasesPerYear().get(2001));
+    }
+
+    @Test
+    void shouldRemoveContribution_whenMovieIsDeleted() {
+        // arrange
+        IndexedMovie movie = createIndexedMovie(1L, Genre.COMEDY, 90, 2005, 4.0);
+        movieStatsService.onIndexRebuilt(List.of(movie, createIndexedMovie(2L, Genre.COMEDY, 100, 2006, 2.0)));
+
+        // act
+        movieStatsService.onMovieIndexed(movie, null);
+
+        // assert
+        MovieStatsDto stats = movieStatsService.getStats();
+        assertEquals(1, stats.total());
+        assertEquals(1, stats.genres().get(Genre.COMEDY).count());
+        assertEquals(2.0, stats.genres().get(Genre.COMEDY).averageRating());
+    }
+}
@@ -0,0 +1,172 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.SuggestionJobStatus;
+import com.platzi.play.domain.dto.SuggestionJobDto;
+import com.platzi.play.domain.exception.SuggestionJobNotFoundException;
+import com.platzi.play.domain.exception.SuggestionQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSuggestionJobServiceTest {
+
+    @Mock
+    private MovieSuggestionService movieSuggestionService;
+
+    private MovieSuggestionJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) jobService.destroy();
+    }
+
+    // Test fixtures
+    private SuggestionJobDto awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        SuggestionJobDto job = jobService.get(id);
+        while ((job.status() == SuggestionJobStatus.PENDING || job.status() == SuggestionJobStatus.RUNNING) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobService.get(id);
+        }
+        return job;
+    }
+
+    // ===================== SUBMIT TESTS =====================
+    @Test
+    void shouldRunJobAndKeepResult() throws Exception {
+        // arrange
+        jobService = new MovieSuggestionJobService(movieSuggestionService, 2, 10, 10, Duration.ofHours(1), Clock.systemUTC());
+        when(movieSuggestionService.suggestInBackground("terror", null)).thenReturn("1. It");
+
+        // act
+        SuggestionJobDto submitted = jobService.submit("terror", null, 5);
+
+        // assert
+        SuggestionJobDto finished = awaitFinished(submitted.id());
+        assertEquals(SuggestionJobStatus.DONE, finished.status());
+        assertEquals("1. It", finished.result());
+        assertNotNull(finished.completedAt());
+    }
+
+    @Test
+    void shouldMarkJobFailed_whenSuggestionThrows() throws Exception {
+        // arrange
+        jobService = new MovieSuggestionJobService(movieSuggestionService, 1, 10, 10, Duration.ofHours(1), Clock.systemUTC());
+        when(movieSuggestionService.suggestInBackground("x", null)).thenThrow(new IllegalStateException("boom"));
+
+        // act
+        SuggestionJobDto submitted = jobService.submit("x", null, 5);
+
+        // assert
+        SuggestionJobDto finished = awaitFinished(submitted.id());
+        assertEquals(SuggestionJobStatus.FAILED, finished.status());
+        assertEquals("boom", finished.error());
+    }
+
+    @Test
+    void shouldRunHigherPriorityFirst_whenWorkersAreBusy() throws Exception {
+        // arrange
+        jobService = new MovieSuggestionJobService(movieSuggestionService, 1, 10, 10, Duration.ofHours(1), Clock.systemUTC());
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        when(movieSuggestionService.suggestInBackground(anyString(), any())).thenAnswer(invocation -> {
+            String preferences = invocation.getArgument(0);
+            if (preferences.equals("first")) blocker.await(2, TimeUnit.SECONDS);
+            order.add(preferences);
+            return preferences;
+        });
+        SuggestionJobDto first = jobService.submit("first", null, 5);
+        while (jobService.get(first.id()).status() == SuggestionJobStatus.PENDING) Thread.sleep(5);
+
+        // act
+        SuggestionJobDto low = jobService.submit("low", null, 1);
+        SuggestionJobDto high = jobService.submit("high", null, 9);
+        blocker.countDown();
+
+        // assert
+        awaitFinished(low.id());
+        awaitFinished(high.id());
+        assertEquals(List.of("first", "high", "low"), order);
+    }
+
+    @Test
+    void shouldRejectJob_whenQueueIsFull() throws Exception {
+        // arrange
+        jobService = new MovieSuggestionJobService(movieSuggestionService, 1, 1, 10, Duration.ofHours(1), Clock.systemUTC());
+        CountDownLatch blocker = new CountDownLatch(1);
+        when(movieSuggestionService.suggestInBackground(anyString(), any())).thenAnswer(invocation -> {
+            blocker.await(2, TimeUnit.SECONDS);
+            return "ok";
+        });
+        SuggestionJobDto running = jobService.submit("running", null, 5);
+        while (jobService.get(running.id()).status() == SuggestionJobStatus.PENDING) Thread.sleep(5);
+        jobService.submit("queued", null, 5);
+
+        // act & assert
+        assertThrows(SuggestionQueueFullException.class, () -> jobService.submit("rejected", null, 5));
+        blocker.countDown();
+    }
+
+    // ===================== EXPIRY TESTS =====================
+    @Test
+    void shouldExpireFinishedJobs_afterTtl() throws Exception {
+        // arrange
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        jobService = new MovieSuggestionJobService(movieSuggestionService, 1, 10, 10, Duration.ofMinutes(10), clock);
+        when(movieSuggestionService.suggestInBackground("terror", null)).thenReturn("1. It");
+        SuggestionJobDto submitted = jobService.submit("terror", null, 5);
+        awaitFinished(submitted.id());
+
+        // act
+        clock.advance(Duration.ofMinutes(11));
+        jobService.purgeExpired();
+
+        // assert
+        assertThrows(SuggestionJobNotFoundException.class, () -> jobService.get(submitted.id()));
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.SuggestionMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieSuggestionServiceTest {
+
+    @Mock
+    private ResilientAiService resilientAiService;
+
+    @Mock
+    private LocalMovieRecommender localMovieRecommender;
+
+    private MovieSuggestionService movieSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        movieSuggestionService = new MovieSuggestionService(resilientAiService, localMovieRecommender, SuggestionMode.AUTO);
+    }
+
+    // Test fixtures
+    @SuppressWarnings("unchecked")
+    private void givenModelIsDegraded(String preferences) {
+        when(resilientAiService.generateMoviesSuggestion(eq(preferences), any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<String>>getArgument(1).get());
+    }
+
+    // ===================== MODE TESTS =====================
+    @Test
+    void shouldUseOnlyLocalRecommender_whenModeIsLocal() {
+        // arrange
+        when(localMovieRecommender.recommend("comedia")).thenReturn("local");
+
+        // act & assert
+        assertEquals("local", movieSuggestionService.suggest("comedia", SuggestionMode.LOCAL));
+        verifyNoInteractions(resilientAiService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldUseModel_whenItAnswers() {
+        // arrange
+        when(resilientAiService.generateMoviesSuggestion(eq("comedia"), any(Supplier.class))).thenReturn("ai");
+
+        // act & assert
+        assertEquals("ai", movieSuggestionService.suggest("comedia", null));
+        verifyNoInteractions(localMovieRecommender);
+    }
+
+    // ===================== FALLBACK TESTS =====================
+    @Test
+    void shouldFallBackToLocal_whenModelIsDegradedInAutoMode() {
+        // arrange
+        givenModelIsDegraded("drama");
+        when(localMovieRecommender.recommend("drama")).thenReturn("local");
+
+        // act & assert
+        assertEquals("local", movieSuggestionService.suggest("drama", SuggestionMode.AUTO));
+    }
+
+    @Test
+    void shouldReturnUnavailableMessage_whenModelIsDegradedInAiMode() {
+        // arrange
+        givenModelIsDegraded("drama");
+
+        // act & assert
+        assertEquals(MovieSuggestionService.AI_UNAVAILABLE, movieSuggestionService.suggest("drama", SuggestionMode.AI));
+        verifyNoInteractions(localMovieRecommender);
+    }
+
+    // ===================== BACKGROUND TESTS =====================
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWaitForProvider_whenSuggestingInBackground() {
+        // arrange
+        when(resilientAiService.generateMoviesSuggestionAndAwaitProvider(eq("comedia"), any(Supplier.class))).thenReturn("ai");
+
+        // act & assert
+        assertEquals("ai", movieSuggestionService.suggestInBackground("comedia", SuggestionMode.AUTO));
+        verify(resilientAiService, never()).generateMoviesSuggestion(anyString(), any(Supplier.class));
+    }
+}
@@ -0,0 +1,181 @@
+package com.platzi.play.domain.service;
+
+import com.platzi.play.domain.resilience.AiResilienceProperties;
+import com.platzi.play.domain.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientAiServiceTest {
+
+    private final StubPlatziPlayAiService stubAiService = new StubPlatziPlayAiService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ResilientAiService resilientAiService;
+
+    @AfterEach
+    void tearDown() {
+        if (resilientAiService != null) resilientAiService.destroy();
+    }
+
+    // Test fixtures
+    private ResilientAiService createService(boolean hedge, int minimumCalls) {
+        AiResilienceProperties properties = new AiResilienceProperties(
+                new AiResilienceProperties.Timeouts(Duration.ofMillis(200), Duration.ofMillis(200)),
+                new AiResilienceProperties.Hedge(hedge, 0.95, Duration.ofMillis(50), 20),
+                new AiResilienceProperties.Breaker(4, minimumCalls, 0.5, Duration.ofMinutes(1))
+        );
+        resilientAiService = new ResilientAiService(stubAiService, properties, meterRegistry);
+        return resilientAiService;
+    }
+
+    private double calls(String outcome) {
+        var counter = meterRegistry.find("platzi_play.ai.calls").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private boolean awaitInterruptions(int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (stubAiService.interruptions() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return stubAiService.interruptions() >= expected;
+    }
+
+    // ===================== DEADLINE TESTS =====================
+    @Test
+    void shouldReturnModelAnswer_whenItAnswersInTime() {
+        // arrange
+        ResilientAiService service = createService(false, 2);
+
+        // act & assert
+        assertEquals("ai: terror", service.generateMoviesSuggestion("terror", () -> "degraded"));
+        assertEquals(1, calls("success"));
+    }
+
+    @Test
+    void shouldReturnDegradedAnswer_whenModelMissesDeadline() {
+        // arrange
+        ResilientAiService service = createService(false, 2);
+        stubAiService.withLatency(Duration.ofSeconds(5));
+
+        // act
+        long start = System.nanoTime();
+        String suggestion = service.generateMoviesSuggestion("terror", () -> "degraded");
+
+        // assert
+        assertEquals("degraded", suggestion);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2_000);
+        assertEquals(1, calls("timeout"));
+    }
+
+    @Test
+    void shouldInterruptProviderCall_whenDeadlineExpires() throws InterruptedException {
+        // arrange
+        ResilientAiService service = createService(false, 2);
+        stubAiService.withLatency(Duration.ofSeconds(5));
+
+        // act
+        service.generateMoviesSuggestion("terror", () -> "degraded");
+
+        // assert: la llamada no sigue corriendo los 5 s, se corta poco despues del plazo
+        assertTrue(awaitInterruptions(1, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldReturnDegradedGreeting_whenModelFails() {
+        // arrange
+        ResilientAiService service = createService(false, 2);
+        stubAiService.failingWith(new IllegalStateException("provider down"));
+
+        // act
+        String greeting = service.generateGreeting("platzi-play");
+
+        // assert
+        assertTrue(greeting.contains("platzi-play"));
+        assertEquals(1, calls("error"));
+    }
+
+    // ===================== HEDGE TESTS =====================
+    @Test
+    void shouldSendSecondAttempt_whenFirstIsSlowerThanHedgeDelay() {
+        // arrange
+        ResilientAiService service = createService(true, 2);
+        stubAiService.withFirstCallLatency(Duration.ofSeconds(5));
+
+        // act
+        String suggestion = service.generateMoviesSuggestion("comedia", () -> "degraded");
+
+        // assert
+        assertEquals("ai: comedia", suggestion);
+        assertEquals(2, stubAiService.calls());
+        assertEquals(1, calls("hedged"));
+    }
+
+    @Test
+    void shouldInterruptSlowAttempt_whenHedgedAttemptWins() throws InterruptedException {
+        // arrange
+        ResilientAiService service = createService(true, 2);
+        stubAiService.withFirstCallLatency(Duration.ofSeconds(5));
+
+        // act
+        service.generateMoviesSuggestion("comedia", () -> "degraded");
+
+        // assert
+        assertTrue(awaitInterruptions(1, Duration.ofSeconds(1)));
+    }
+
+    // ===================== AWAIT PROVIDER TESTS =====================
+    @Test
+    void shouldReturnOnlyAfterProviderCallEnded_whenAwaitingProvider() {
+        // arrange
+        ResilientAiService service = createService(false, 2);
+        stubAiService.withLatency(Duration.ofSeconds(5));
+
+        // act
+        String suggestion = service.generateMoviesSuggestionAndAwaitProvider("terror", () -> "degraded");
+
+        // assert: al volver, la llamada vencida ya fue interrumpida y termino
+        assertEquals("degraded", suggestion);
+        assertEquals(1, stubAiService.interruptions());
+    }
+
+    @Test
+    void shouldNotHedge_whenAwaitingProvider() {
+        // arrange
+        ResilientAiService service = createService(true, 2);
+        stubAiService.withFirstCallLatency(Duration.ofSeconds(5));
+
+        // act
+        String suggestion = service.generateMoviesSuggestionAndAwaitProvider("comedia", () -> "degraded");
+
+        // assert
+        assertEquals("degraded", suggestion);
+        assertEquals(1, stubAiService.calls());
+        assertEquals(0, calls("hedged"));
+    }
+
+    // ===================== BREAKER TESTS =====================
+    @Test
+    void shouldFailFastWithoutCallingModel_whenCircuitIsOpen() {
+        // arrange
+        ResilientAiService service = createService(false, 2);
+        stubAiService.failingWith(new IllegalStateException("provider down"));
+        service.generateMoviesSuggestion("a", () -> "degraded");
+        service.generateMoviesSuggestion("b", () -> "degraded");
+        stubAiService.healthy();
+
+        // act
+        String suggestion = service.generateMoviesSuggestion("c", () -> "degraded");
+
+        // assert
+        assertEquals("degraded", suggestion);
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+        assertEquals(2, stubAiService.calls());
+        assertEquals(1, calls("rejected"));
+        assertEquals(1.0, meterRegistry.get("platzi_play.ai.breaker.state").gauge().value());
+    }
+}
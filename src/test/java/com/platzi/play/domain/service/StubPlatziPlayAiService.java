@@ -0,0 +1,72 @@
+package com.platzi.play.domain.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modelo de IA local para pruebas: responde texto fijo con la latencia y las fallas que se le indiquen.
+ */
+class StubPlatziPlayAiService implements PlatziPlayAiService {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger interruptions = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration firstCallLatency;
+    private volatile RuntimeException failure;
+
+    StubPlatziPlayAiService withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    // Solo la primera llamada tarda esto; sirve para probar el segundo intento
+    StubPlatziPlayAiService withFirstCallLatency(Duration latency) {
+        this.firstCallLatency = latency;
+        return this;
+    }
+
+    StubPlatziPlayAiService failingWith(RuntimeException failure) {
+        this.failure = failure;
+        return this;
+    }
+
+    StubPlatziPlayAiService healthy() {
+        this.failure = null;
+        this.latency = Duration.ZERO;
+        return this;
+    }
+
+    int calls() {
+        return this.calls.get();
+    }
+
+    // Llamadas que se cortaron por interrupcion mientras esperaban al "proveedor"
+    int interruptions() {
+        return this.interruptions.get();
+    }
+
+    @Override
+    public String generateGreeting(String plataform) {
+        return this.answer("Hola " + plataform);
+    }
+
+    @Override
+    public String generateMoviesSuggestion(String userMenssage) {
+        return this.answer("ai: " + userMenssage);
+    }
+
+    private String answer(String text) {
+        int call = this.calls.incrementAndGet();
+        Duration delay = call == 1 && this.firstCallLatency != null ? this.firstCallLatency : this.latency;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            this.interruptions.incrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrumpido", e);
+        }
+        if (this.failure != null) {
+            throw this.failure;
+        }
+        return text;
+    }
+}
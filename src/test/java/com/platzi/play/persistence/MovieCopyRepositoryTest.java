@@ -0,0 +1,155 @@
+package com.platzi.play.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MovieCopyRepositoryTest {
+
+    private ValidatorFactory validatorFactory;
+    private ApplicationEventPublisher eventPublisher;
+    private Statement statement;
+    private ByteArrayOutputStream copied;
+    private MovieCopyRepository movieCopyRepository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+        statement = mock(Statement.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        copied = new ByteArrayOutputStream();
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        // Lo que se envia con COPY queda en "copied" para revisar las filas que pasaron la validacion
+        doAnswer(invocation -> {
+            copied.write(invocation.<byte[]>getArgument(0), invocation.<Integer>getArgument(1), invocation.<Integer>getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        movieCopyRepository = new MovieCopyRepository(dataSource, new ObjectMapper().registerModule(new JavaTimeModule()),
+                eventPublisher, validatorFactory.getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private String copiedRows() {
+        return copied.toString(StandardCharsets.UTF_8);
+    }
+
+    // ===================== CSV TESTS =====================
+    @Test
+    void shouldCopyValidRows_andRejectInvalidOnes_whenCsvIsIngested() throws SQLException {
+        // arrange
+        when(statement.executeUpdate(anyString())).thenReturn(1);
+        String csv = """
+                titulo,duracion,genero,fecha_estreno,clasificacion
+                The Matrix,136,SCI_FI,1999-03-31,4.8
+                Desconocida,100,WESTERN,2000-01-01,3.0
+                Muy larga,301,DRAMA,2000-01-01,3.0
+                Mal votada,100,DRAMA,2000-01-01,5.5
+                ,100,DRAMA,2000-01-01,3.0
+                Del futuro,100,DRAMA,2999-01-01,3.0
+                Sin duracion,,DRAMA,2000-01-01,3.0
+                Fecha rara,100,DRAMA,01/01/2000,3.0
+                %s,100,DRAMA,2000-01-01,3.0
+                """.formatted("T".repeat(151));
+
+        // act
+        IngestReportDto report = movieCopyRepository.ingest(new StringReader(csv), IngestFormat.CSV);
+
+        // assert
+        assertEquals(9, report.rowsRead());
+        assertEquals(1, report.rowsInserted());
+        assertEquals(8, report.rowsRejected());
+        assertEquals(0, report.rowsSkipped());
+        assertEquals("\"The Matrix\",136,\"CIENCIA_FICCION\",1999-03-31,4.8\n", copiedRows());
+        verify(eventPublisher).publishEvent(any(MovieCatalogReloadedEvent.class));
+    }
+
+    @Test
+    void shouldCountDuplicatesAsSkipped_whenTitlesAlreadyExist() throws SQLException {
+        // arrange: la base ya tenia una de las dos peliculas
+        when(statement.executeUpdate(anyString())).thenReturn(1);
+        String csv = """
+                The Matrix,136,CIENCIA_FICCION,1999-03-31,4.8
+                Inception,148,ACCION,2010-07-16,4.7
+                """;
+
+        // act
+        IngestReportDto report = movieCopyRepository.ingest(new StringReader(csv), IngestFormat.CSV);
+
+        // assert
+        assertEquals(2, report.rowsRead());
+        assertEquals(0, report.rowsRejected());
+        assertEquals(1, report.rowsSkipped());
+    }
+
+    // ===================== NDJSON TESTS =====================
+    @Test
+    void shouldValidateRows_whenNdjsonIsIngested() throws SQLException {
+        // arrange
+        when(statement.executeUpdate(anyString())).thenReturn(1);
+        String ndjson = """
+                {"title":"Inception","duration":148,"genre":"ACTION","releaseDate":"2010-07-16","rating":4.7}
+                {"title":"Desconocida","duration":100,"genre":"WESTERN","releaseDate":"2000-01-01","rating":3.0}
+                {"title":"Muy corta","duration":0,"genre":"DRAMA","releaseDate":"2000-01-01","rating":3.0}
+                no es json
+                """;
+
+        // act
+        IngestReportDto report = movieCopyRepository.ingest(new StringReader(ndjson), IngestFormat.NDJSON);
+
+        // assert
+        assertEquals(4, report.rowsRead());
+        assertEquals(3, report.rowsRejected());
+        assertEquals("\"Inception\",148,\"ACCION\",2010-07-16,4.7\n", copiedRows());
+    }
+
+    @Test
+    void shouldNotPublishReload_whenNothingIsInserted() throws SQLException {
+        // arrange
+        when(statement.executeUpdate(anyString())).thenReturn(0);
+
+        // act
+        IngestReportDto report = movieCopyRepository.ingest(new StringReader("Desconocida,100,WESTERN,2000-01-01,3.0\n"), IngestFormat.CSV);
+
+        // assert
+        assertEquals(1, report.rowsRejected());
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,82 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieCsvRowParserTest {
+
+    // ===================== PARSE TESTS =====================
+    @Test
+    void shouldParseRow_whenAllColumnsArePresent() {
+        // act
+        MovieDto movie = MovieCsvRowParser.parse("The Matrix,136,CIENCIA_FICCION,1999-03-31,4.8");
+
+        // assert
+        assertEquals(new MovieDto("The Matrix", 136, Genre.SCI_FI, LocalDate.of(1999, 3, 31), 4.8, "D"), movie);
+    }
+
+    @Test
+    void shouldKeepCommasAndQuotes_whenTitleIsQuoted() {
+        // act
+        MovieDto movie = MovieCsvRowParser.parse("\"Crouching Tiger, \"\"Hidden\"\" Dragon\",120,ACCION,2000-07-06,");
+
+        // assert
+        assertEquals("Crouching Tiger, \"Hidden\" Dragon", movie.title());
+        assertNull(movie.rating());
+    }
+
+    @Test
+    void shouldFail_whenColumnCountIsWrong() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> MovieCsvRowParser.parse("The Matrix,136,DRAMA"));
+    }
+
+    @Test
+    void shouldFail_whenQuotesAreNotClosed() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> MovieCsvRowParser.parse("\"The Matrix,136,DRAMA,1999-03-31,4.8"));
+    }
+
+    @Test
+    void shouldFail_whenNumberOrDateIsMalformed() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> MovieCsvRowParser.parse("The Matrix,larga,DRAMA,1999-03-31,4.8"));
+        assertThrows(IllegalArgumentException.class, () -> MovieCsvRowParser.parse("The Matrix,136,DRAMA,31/03/1999,4.8"));
+        assertThrows(IllegalArgumentException.class, () -> MovieCsvRowParser.parse("The Matrix,136,DRAMA,1999-02-30,4.8"));
+    }
+
+    // ===================== GENRE TESTS =====================
+    @Test
+    void shouldAcceptApiAndDatabaseGenreNames() {
+        // act & assert
+        assertEquals(Genre.SCI_FI, MovieCsvRowParser.parseGenre("sci_fi"));
+        assertEquals(Genre.SCI_FI, MovieCsvRowParser.parseGenre("CIENCIA_FICCION"));
+        assertEquals(Genre.HORROR, MovieCsvRowParser.parseGenre(" terror "));
+    }
+
+    @Test
+    void shouldRejectUnknownGenre() {
+        // act
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> MovieCsvRowParser.parseGenre("WESTERN"));
+
+        // assert
+        assertTrue(error.getMessage().contains("WESTERN"));
+    }
+
+    // ===================== SPLIT TESTS =====================
+    @Test
+    void shouldReturnNull_whenColumnIsEmpty() {
+        // act
+        List<String> columns = MovieCsvRowParser.split("a,,\"\"");
+
+        // assert
+        assertEquals(Arrays.asList("a", null, ""), columns);
+    }
+}
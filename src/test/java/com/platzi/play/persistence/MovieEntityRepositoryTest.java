@@ -0,0 +1,144 @@
+package com.platzi.play.persistence;
+
+import com.platzi.play.domain.MovieSyncToken;
+import com.platzi.play.domain.dto.MovieChangesDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.persistence.cache.MissingMovieCache;
+import com.platzi.play.persistence.crud.CrudMovieEntity;
+import com.platzi.play.persistence.crud.CrudMovieTombstoneEntity;
+import com.platzi.play.persistence.entity.MovieEntity;
+import com.platzi.play.persistence.mapper.MovieMapper;
+import com.platzi.play.persistence.routing.ReadYourWritesContext;
+import com.platzi.play.persistence.routing.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieEntityRepositoryTest {
+
+    private static final Instant DATABASE_NOW = Instant.parse("2026-01-01T00:00:10Z");
+    private static final Instant HORIZON = Instant.parse("2026-01-01T00:00:05Z");
+
+    @Mock
+    private CrudMovieEntity crudMovieEntity;
+
+    @Mock
+    private CrudMovieTombstoneEntity crudMovieTombstoneEntity;
+
+    @Mock
+    private MovieMapper movieMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MissingMovieCache missingMovieCache = new MissingMovieCache(16);
+    private final StaticListableBeanFactory replicaRouting = new StaticListableBeanFactory();
+    private MovieEntityRepository movieEntityRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieEntityRepository = new MovieEntityRepository(crudMovieEntity, crudMovieTombstoneEntity, movieMapper,
+                missingMovieCache, eventPublisher, Duration.ofSeconds(5), replicaRouting.getBeanProvider(ReplicaRoutingDataSource.class));
+        lenient().when(crudMovieEntity.currentTimestampMicros()).thenReturn(ChronoUnit.MICROS.between(Instant.EPOCH, DATABASE_NOW));
+    }
+
+    // ===================== CHANGES TESTS =====================
+    @Test
+    void shouldOnlyReadChangesOlderThanSafetyLag() {
+        // arrange
+        when(crudMovieEntity.findChangedSince(any(), anyLong(), any(), any())).thenReturn(List.of());
+        when(crudMovieTombstoneEntity.findDeletedSince(any(), anyLong(), any(), any())).thenReturn(List.of());
+
+        // act
+        MovieChangesDto changes = movieEntityRepository.getChangesSince(MovieSyncToken.START, 100);
+
+        // assert
+        verify(crudMovieEntity).findChangedSince(Instant.EPOCH, 0, HORIZON, Limit.of(101));
+        verify(crudMovieTombstoneEntity).findDeletedSince(Instant.EPOCH, 0, HORIZON, Limit.of(101));
+        assertTrue(changes.changes().isEmpty());
+        assertEquals(MovieSyncToken.START.encode(), changes.nextToken());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    void shouldAdvanceToken_onlyToLastDeliveredChange() {
+        // arrange
+        Instant changedAt = Instant.parse("2026-01-01T00:00:01Z");
+        MovieEntity movie = new MovieEntity();
+        movie.setId(7L);
+        movie.setEstado("D");
+        movie.setFechaCreacion(changedAt);
+        movie.setFechaActualizacion(changedAt);
+        when(crudMovieEntity.findChangedSince(eq(Instant.EPOCH), eq(0L), eq(HORIZON), any())).thenReturn(List.of(movie));
+        when(crudMovieTombstoneEntity.findDeletedSince(any(), anyLong(), any(), any())).thenReturn(List.of());
+
+        // act
+        MovieChangesDto changes = movieEntityRepository.getChangesSince(MovieSyncToken.START, 100);
+
+        // assert
+        assertEquals(1, changes.changes().size());
+        MovieSyncToken next = MovieSyncToken.decode(changes.nextToken());
+        assertEquals(changedAt, next.updatedAt());
+        assertEquals(7L, next.updatedId());
+        assertEquals(Instant.EPOCH, next.deletedAt());
+    }
+
+    // ===================== REPLICA TESTS =====================
+    @Test
+    void shouldNotRememberMissingId_whenReadComesFromReplica() {
+        // arrange: la replica puede no tener todavia una pelicula recien creada
+        ReplicaRoutingDataSource routing = mock(ReplicaRoutingDataSource.class);
+        when(routing.routesToReplica()).thenReturn(true);
+        replicaRouting.addBean("replicaRoutingDataSource", routing);
+        when(crudMovieEntity.findById(9L)).thenReturn(Optional.empty());
+
+        // act & assert
+        assertThrows(MovieNotFound.class, () -> movieEntityRepository.getById(9L));
+        assertFalse(missingMovieCache.contains(9L));
+    }
+
+    @Test
+    void shouldRememberMissingId_whenReadComesFromPrimary() {
+        // arrange
+        when(crudMovieEntity.findById(9L)).thenReturn(Optional.empty());
+
+        // act & assert
+        assertThrows(MovieNotFound.class, () -> movieEntityRepository.getById(9L));
+        assertTrue(missingMovieCache.contains(9L));
+    }
+
+    @Test
+    void shouldReadFromPrimary_whenRefreshingAfterChange() {
+        // arrange
+        AtomicBoolean pinned = new AtomicBoolean();
+        when(crudMovieEntity.findById(7L)).thenAnswer(invocation -> {
+            pinned.set(ReadYourWritesContext.isPrimaryRequired());
+            return Optional.empty();
+        });
+
+        // act
+        movieEntityRepository.findAvailableById(7L);
+
+        // assert
+        assertTrue(pinned.get());
+        assertFalse(ReadYourWritesContext.isPrimaryRequired());
+    }
+}
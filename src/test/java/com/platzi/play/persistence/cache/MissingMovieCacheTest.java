@@ -0,0 +1,152 @@
+package com.platzi.play.persistence.cache;
+
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissingMovieCacheTest {
+
+    private MissingMovieCache missingMovieCache;
+
+    @BeforeEach
+    void setUp() {
+        missingMovieCache = new MissingMovieCache(16);
+    }
+
+    // ===================== CONTAINS TESTS =====================
+    @Test
+    void shouldNotContainId_whenCacheIsEmpty() {
+        // act & assert
+        assertFalse(missingMovieCache.contains(1L));
+        assertFalse(missingMovieCache.contains(0L));
+    }
+
+    @Test
+    void shouldContainId_whenIdWasAdded() {
+        // act
+        missingMovieCache.add(999L);
+
+        // assert
+        assertTrue(missingMovieCache.contains(999L));
+        assertFalse(missingMovieCache.contains(998L));
+    }
+
+    @Test
+    void shouldContainId_whenEpochIsUnchanged() {
+        // arrange
+        long epoch = missingMovieCache.epoch();
+
+        // act
+        missingMovieCache.add(5L, epoch);
+
+        // assert
+        assertTrue(missingMovieCache.contains(5L));
+    }
+
+    @Test
+    void shouldNotContainId_whenMovieWasCreatedAfterLookup() {
+        // arrange: la consulta a la base no encontro el id y antes de marcarlo se confirmo el alta
+        long epoch = missingMovieCache.epoch();
+        missingMovieCache.onMovieChanged(new MovieChangedEvent(5L, MovieChangedEvent.Operation.CREATED));
+
+        // act
+        missingMovieCache.add(5L, epoch);
+
+        // assert
+        assertFalse(missingMovieCache.contains(5L));
+    }
+
+    @Test
+    void shouldNotContainId_whenCacheWasClearedAfterLookup() {
+        // arrange
+        long epoch = missingMovieCache.epoch();
+        missingMovieCache.clear();
+
+        // act
+        missingMovieCache.add(6L, epoch);
+
+        // assert
+        assertFalse(missingMovieCache.contains(6L));
+    }
+
+    // ===================== REMOVE TESTS =====================
+    @Test
+    void shouldForgetId_whenIdIsRemoved() {
+        // arrange
+        missingMovieCache.add(42L);
+
+        // act
+        missingMovieCache.remove(42L);
+
+        // assert
+        assertFalse(missingMovieCache.contains(42L));
+    }
+
+    @Test
+    void shouldForgetAllIds_whenCacheIsCleared() {
+        // arrange
+        missingMovieCache.add(1L);
+        missingMovieCache.add(2L);
+
+        // act
+        missingMovieCache.clear();
+
+        // assert
+        assertFalse(missingMovieCache.contains(1L));
+        assertFalse(missingMovieCache.contains(2L));
+    }
+
+    // ===================== BOUNDS TESTS =====================
+    @Test
+    void shouldStayBounded_whenManyIdsAreAdded() {
+        // act
+        for (long id = 1; id <= 1_000; id++) {
+            missingMovieCache.add(id);
+        }
+
+        // assert
+        long cached = 0;
+        for (long id = 1; id <= 1_000; id++) {
+            if (missingMovieCache.contains(id)) cached++;
+        }
+        assertTrue(cached <= 16);
+        assertTrue(missingMovieCache.contains(1_000L));
+    }
+
+    // ===================== EVENT TESTS =====================
+    @Test
+    void shouldForgetId_whenRemoteNodeCreatesMovie() {
+        // arrange
+        missingMovieCache.add(7L);
+
+        // act
+        missingMovieCache.onMovieChanged(new MovieChangedEvent(7L, MovieChangedEvent.Operation.CREATED, 1L, true));
+
+        // assert
+        assertFalse(missingMovieCache.contains(7L));
+    }
+
+    @Test
+    void shouldRememberId_whenMovieIsDeleted() {
+        // act
+        missingMovieCache.onMovieChanged(new MovieChangedEvent(8L, MovieChangedEvent.Operation.DELETED));
+
+        // assert
+        assertTrue(missingMovieCache.contains(8L));
+    }
+
+    @Test
+    void shouldClear_whenCatalogIsReloaded() {
+        // arrange
+        missingMovieCache.add(9L);
+
+        // act
+        missingMovieCache.onCatalogReloaded(new MovieCatalogReloadedEvent(0, true));
+
+        // assert
+        assertFalse(missingMovieCache.contains(9L));
+    }
+}
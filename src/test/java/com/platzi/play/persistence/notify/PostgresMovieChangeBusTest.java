@@ -0,0 +1,217 @@
+package com.platzi.play.persistence.notify;
+
+import com.platzi.play.domain.event.MovieCatalogReloadedEvent;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.event.MovieRatingsChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PostgresMovieChangeBusTest {
+
+    private static final String CHANNEL = "platzi_play_movies";
+
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private PostgresMovieChangeBus.ListenerConnections listenerConnections;
+    private PostgresMovieChangeBus movieChangeBus;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        listenerConnections = mock(PostgresMovieChangeBus.ListenerConnections.class);
+        movieChangeBus = newBus(jdbcTemplate, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieChangeBus.stop();
+    }
+
+    // Test fixtures
+    private PostgresMovieChangeBus newBus(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        return new PostgresMovieChangeBus(jdbcTemplate, eventPublisher, listenerConnections, CHANNEL,
+                Duration.ofMillis(20), Duration.ofMinutes(5));
+    }
+
+    private String sentPayload() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).queryForObject(eq("SELECT pg_notify(?, ?)"), eq(Object.class), eq(CHANNEL), payload.capture());
+        return (String) payload.getValue();
+    }
+
+    private Connection listenerConnection(PGConnection pgConnection) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        return connection;
+    }
+
+    // ===================== PUBLISH TESTS =====================
+    @Test
+    void shouldPrefixPayloadWithNodeId_whenMovieChangesLocally() {
+        // act
+        movieChangeBus.onMovieChanged(new MovieChangedEvent(7L, MovieChangedEvent.Operation.UPDATED, 123L, false));
+
+        // assert
+        assertEquals(movieChangeBus.nodeId() + "|UPDATED|7|123", sentPayload());
+    }
+
+    @Test
+    void shouldNotNotify_whenEventCameFromAnotherNode() {
+        // act
+        movieChangeBus.onMovieChanged(new MovieChangedEvent(7L, MovieChangedEvent.Operation.UPDATED, 123L, true));
+        movieChangeBus.onRatingsChanged(new MovieRatingsChangedEvent(Map.of(7L, 4.5), true));
+        movieChangeBus.onCatalogReloaded(new MovieCatalogReloadedEvent(10, true));
+
+        // assert: reenviarlo haria rebotar el aviso entre nodos sin fin
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldSplitRatings_intoSeveralNotifications_whenBatchIsLarge() {
+        // arrange
+        Map<Long, Double> ratings = new HashMap<>();
+        for (long id = 1; id <= 450; id++) ratings.put(id, 3.5);
+
+        // act
+        movieChangeBus.onRatingsChanged(new MovieRatingsChangedEvent(ratings));
+
+        // assert: 200 + 200 + 50
+        verify(jdbcTemplate, times(3)).queryForObject(eq("SELECT pg_notify(?, ?)"), eq(Object.class), eq(CHANNEL), anyString());
+    }
+
+    @Test
+    void shouldKeepWorking_whenNotifyFails() {
+        // arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Object.class), eq(CHANNEL), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("caido"));
+
+        // act & assert: la escritura ya se hizo, el aviso perdido no debe romperla
+        assertDoesNotThrow(() -> movieChangeBus.onCatalogReloaded(new MovieCatalogReloadedEvent(3)));
+    }
+
+    // ===================== RECEIVE TESTS =====================
+    @Test
+    void shouldRepublishChangeAsRemote_whenAnotherNodeNotifies() {
+        // arrange: el aviso que manda un nodo es el que recibe el otro
+        JdbcTemplate otherJdbcTemplate = mock(JdbcTemplate.class);
+        PostgresMovieChangeBus otherNode = newBus(otherJdbcTemplate, mock(ApplicationEventPublisher.class));
+        otherNode.onMovieChanged(new MovieChangedEvent(7L, MovieChangedEvent.Operation.DELETED, 123L, false));
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(otherJdbcTemplate).queryForObject(anyString(), eq(Object.class), eq(CHANNEL), payload.capture());
+
+        // act
+        movieChangeBus.handle((String) payload.getValue());
+
+        // assert
+        verify(eventPublisher).publishEvent(new MovieChangedEvent(7L, MovieChangedEvent.Operation.DELETED, 123L, true));
+    }
+
+    @Test
+    void shouldParseRatingsPayload_intoRemoteEvent() {
+        // act
+        movieChangeBus.handle("otro-nodo|RATINGS|1:4.25,2:3.0|123");
+
+        // assert
+        verify(eventPublisher).publishEvent(new MovieRatingsChangedEvent(Map.of(1L, 4.25, 2L, 3.0), true));
+    }
+
+    @Test
+    void shouldParseReloadPayload_intoRemoteEvent() {
+        // act
+        movieChangeBus.handle("otro-nodo|RELOAD|42|123");
+
+        // assert
+        verify(eventPublisher).publishEvent(new MovieCatalogReloadedEvent(42, true));
+    }
+
+    @Test
+    void shouldIgnoreOwnNotifications() {
+        // arrange
+        movieChangeBus.onMovieChanged(new MovieChangedEvent(7L, MovieChangedEvent.Operation.UPDATED, 123L, false));
+
+        // act: Postgres tambien entrega el aviso a la conexion que lo envio
+        movieChangeBus.handle(sentPayload());
+
+        // assert
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldIgnoreMalformedPayloads() {
+        // act
+        movieChangeBus.handle("otro-nodo|UPDATED|7");
+        movieChangeBus.handle("otro-nodo|RENAMED|7|123");
+        movieChangeBus.handle("otro-nodo|UPDATED|siete|123");
+        movieChangeBus.handle("otro-nodo|RATINGS|1-4.25|123");
+
+        // assert
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // ===================== RECONNECT TESTS =====================
+    @Test
+    void shouldPublishRemoteReload_afterListenerReconnects() throws Exception {
+        // arrange: la primera conexion se cae al esperar avisos; la segunda queda escuchando
+        PGConnection brokenPgConnection = mock(PGConnection.class);
+        when(brokenPgConnection.getNotifications(anyInt())).thenThrow(new SQLException("conexion perdida"));
+        PGConnection healthyPgConnection = mock(PGConnection.class);
+        when(healthyPgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            LockSupport.parkNanos(10_000_000);
+            return null;
+        });
+        Connection broken = listenerConnection(brokenPgConnection);
+        Connection healthy = listenerConnection(healthyPgConnection);
+        when(listenerConnections.open()).thenReturn(broken, healthy);
+
+        // act
+        movieChangeBus.start();
+
+        // assert: pudieron perderse avisos mientras no escuchaba, asi que se pide una recarga completa
+        verify(eventPublisher, timeout(2000)).publishEvent(new MovieCatalogReloadedEvent(0, true));
+        verify(broken, timeout(2000)).close();
+        movieChangeBus.stop();
+        verify(healthy, timeout(2000)).close();
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void shouldNotPublishReload_onFirstConnection() throws Exception {
+        // arrange
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            LockSupport.parkNanos(10_000_000);
+            return null;
+        });
+        Connection connection = listenerConnection(pgConnection);
+        when(listenerConnections.open()).thenReturn(connection);
+
+        // act
+        movieChangeBus.start();
+        verify(pgConnection, timeout(2000).atLeast(3)).getNotifications(anyInt());
+        movieChangeBus.stop();
+
+        // assert
+        verify(connection, timeout(2000)).close();
+        verifyNoInteractions(eventPublisher);
+    }
+}
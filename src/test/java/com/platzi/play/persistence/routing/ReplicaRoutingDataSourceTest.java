@@ -0,0 +1,180 @@
+package com.platzi.play.persistence.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaOne;
+    private DataSource replicaTwo;
+    private Connection primaryConnection;
+    private Connection replicaOneConnection;
+    private Connection replicaTwoConnection;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replicaOne = mock(DataSource.class);
+        replicaTwo = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaOneConnection = mock(Connection.class);
+        replicaTwoConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        when(replicaTwo.getConnection()).thenReturn(replicaTwoConnection);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replicaOne);
+        replicas.put("replica-2", replicaTwo);
+
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(1), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+    }
+
+    // ===================== ROUTING TESTS =====================
+    @Test
+    void shouldUsePrimary_whenTransactionIsNotReadOnly() throws SQLException {
+        // act
+        Connection connection = routingDataSource.getConnection();
+
+        // assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void shouldAlternateReplicas_whenTransactionIsReadOnly() throws SQLException {
+        // arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // act
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+
+        // assert
+        assertSame(replicaOneConnection, first);
+        assertSame(replicaTwoConnection, second);
+        assertEquals(1.0, meterRegistry.counter("platzi.datasource.routed.connections", "pool", "replica-1").count());
+    }
+
+    @Test
+    void shouldUsePrimary_whenClientWroteRecently() throws SQLException {
+        // arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWritesContext.requirePrimary();
+
+        // act
+        Connection connection = routingDataSource.getConnection();
+
+        // assert
+        assertSame(primaryConnection, connection);
+    }
+
+    // ===================== TRANSACTION TESTS =====================
+    @Test
+    void shouldUsePrimaryForLookupAndWrite_whenBothRunInWriteTransaction() throws SQLException {
+        // arrange: como save/update, la busqueda readOnly participa de la transaccion de escritura
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        TransactionTemplate lookup = new TransactionTemplate(transactionManager);
+        lookup.setReadOnly(true);
+
+        // act
+        write.executeWithoutResult(status -> {
+            lookup.executeWithoutResult(inner -> prepare(dataSource, "SELECT id FROM platzi_play_peliculas WHERE titulo = ?"));
+            prepare(dataSource, "INSERT INTO platzi_play_peliculas (titulo) VALUES (?)");
+        });
+
+        // assert
+        verify(primaryConnection).prepareStatement("SELECT id FROM platzi_play_peliculas WHERE titulo = ?");
+        verify(primaryConnection).prepareStatement("INSERT INTO platzi_play_peliculas (titulo) VALUES (?)");
+        verifyNoInteractions(replicaOne, replicaTwo);
+    }
+
+    @Test
+    void shouldUseReplica_whenLookupRunsInItsOwnReadOnlyTransaction() throws SQLException {
+        // arrange
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        TransactionTemplate lookup = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        lookup.setReadOnly(true);
+
+        // act
+        lookup.executeWithoutResult(status -> prepare(dataSource, "SELECT 1"));
+
+        // assert
+        verify(replicaOneConnection).prepareStatement("SELECT 1");
+        verify(primaryConnection, never()).prepareStatement("SELECT 1");
+    }
+
+    private static void prepare(DataSource dataSource, String sql) {
+        try {
+            DataSourceUtils.getConnection(dataSource).prepareStatement(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ===================== HEALTH CHECK TESTS =====================
+    @Test
+    void shouldSkipReplica_whenHealthCheckFails() throws SQLException {
+        // arrange
+        when(replicaOneConnection.isValid(anyInt())).thenReturn(false);
+        when(replicaTwoConnection.isValid(anyInt())).thenReturn(true);
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // act
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+
+        // assert
+        assertFalse(routingDataSource.isHealthy("replica-1"));
+        assertSame(replicaTwoConnection, first);
+        assertSame(replicaTwoConnection, second);
+    }
+
+    @Test
+    void shouldFallBackToPrimary_whenNoReplicaIsHealthy() throws SQLException {
+        // arrange
+        when(replicaOne.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(replicaTwoConnection.isValid(anyInt())).thenReturn(false);
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // act
+        Connection connection = routingDataSource.getConnection();
+
+        // assert
+        assertSame(primaryConnection, connection);
+        assertEquals(0.0, meterRegistry.get("platzi.datasource.replica.healthy").tag("pool", "replica-1").gauge().value());
+    }
+}
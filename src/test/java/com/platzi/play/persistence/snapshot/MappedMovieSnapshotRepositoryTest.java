@@ -0,0 +1,90 @@
+package com.platzi.play.persistence.snapshot;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.index.IndexedMovie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedMovieSnapshotRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private MappedMovieSnapshotRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("snapshots").resolve("catalog.snapshot");
+        repository = new MappedMovieSnapshotRepository(file);
+    }
+
+    // ===================== ROUND TRIP TESTS =====================
+    @Test
+    void shouldReadBackSavedMovies() {
+        // arrange
+        List<IndexedMovie> movies = List.of(
+                new IndexedMovie(1L, new MovieDto("Coco", 105, Genre.ANIMATED, LocalDate.of(2017, 10, 27), 4.7, "D")),
+                new IndexedMovie(2L, new MovieDto("El Niño y la Garza", null, null, null, null, "D"))
+        );
+
+        // act
+        repository.save(movies);
+        Optional<List<IndexedMovie>> loaded = repository.load();
+
+        // assert
+        assertTrue(loaded.isPresent());
+        assertEquals(movies, loaded.get());
+    }
+
+    @Test
+    void shouldReplacePreviousSnapshot() {
+        // arrange
+        repository.save(List.of(new IndexedMovie(1L, new MovieDto("Coco", 105, Genre.ANIMATED, null, null, "D"))));
+
+        // act
+        repository.save(List.of());
+
+        // assert
+        assertEquals(List.of(), repository.load().orElseThrow());
+    }
+
+    // ===================== INVALID FILE TESTS =====================
+    @Test
+    void shouldReturnEmpty_whenFileDoesNotExist() {
+        // act & assert
+        assertTrue(repository.load().isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmpty_whenFileIsCorrupted() throws Exception {
+        // arrange
+        repository.save(List.of(new IndexedMovie(1L, new MovieDto("Coco", 105, Genre.ANIMATED, null, 4.7, "D"))));
+        byte[] content = Files.readAllBytes(file);
+        content[20] ^= 0x7F;
+        Files.write(file, content);
+
+        // act & assert
+        assertTrue(repository.load().isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmpty_whenFileIsTruncated() throws Exception {
+        // arrange
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1, 2, 3});
+
+        // act & assert
+        assertTrue(repository.load().isEmpty());
+    }
+}
@@ -0,0 +1,132 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.IngestFormat;
+import com.platzi.play.domain.dto.IngestReportDto;
+import com.platzi.play.domain.exception.MovieIngestException;
+import com.platzi.play.domain.service.IdempotencyService;
+import com.platzi.play.domain.service.MovieIngestService;
+import com.platzi.play.domain.service.MovieStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminMovieController.class)
+class AdminMovieControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MovieIngestService movieIngestService;
+
+    @MockitoBean
+    private MovieStatsService movieStatsService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    private IngestReportDto createTestReport() {
+        return new IngestReportDto(3, 1, 1, 1, 12, 250.0);
+    }
+
+    // ===================== INGEST TESTS =====================
+    @Test
+    void shouldIngestCsv_whenContentTypeIsCsv_returns200() throws Exception {
+        // arrange
+        when(movieIngestService.ingest(any(Reader.class), eq(IngestFormat.CSV))).thenAnswer(invocation -> {
+            // El cuerpo llega tal cual al servicio
+            String body = readAll(invocation.getArgument(0));
+            return body.startsWith("titulo,") ? createTestReport() : null;
+        });
+
+        // act & assert
+        mockMvc.perform(post("/admin/movies/ingest")
+                        .contentType("text/csv")
+                        .content("titulo,duracion,genero,fecha_estreno,clasificacion\nThe Matrix,136,SCI_FI,1999-03-31,4.8\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead", equalTo(3)))
+                .andExpect(jsonPath("$.rowsInserted", equalTo(1)))
+                .andExpect(jsonPath("$.rowsRejected", equalTo(1)))
+                .andExpect(jsonPath("$.rowsSkipped", equalTo(1)));
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void shouldIngestNdjson_whenContentTypeIsNdjson_returns200() throws Exception {
+        // arrange
+        when(movieIngestService.ingest(any(Reader.class), eq(IngestFormat.NDJSON))).thenReturn(createTestReport());
+
+        // act & assert
+        mockMvc.perform(post("/admin/movies/ingest")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Inception\",\"duration\":148,\"genre\":\"ACTION\"}\n"))
+                .andExpect(status().isOk());
+
+        verify(movieIngestService).ingest(any(Reader.class), eq(IngestFormat.NDJSON));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenIngestFails_returns400() throws Exception {
+        // arrange
+        when(movieIngestService.ingest(any(Reader.class), eq(IngestFormat.CSV)))
+                .thenThrow(new MovieIngestException("conexion perdida", new SQLException("conexion perdida")));
+
+        // act & assert
+        mockMvc.perform(post("/admin/movies/ingest").contentType("text/csv").content("a,b\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type", equalTo("movie-ingest-failed")));
+    }
+
+    @Test
+    void shouldReturnUnsupportedMediaType_whenContentTypeIsJson_returns415() throws Exception {
+        // act & assert
+        mockMvc.perform(post("/admin/movies/ingest").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(movieIngestService);
+    }
+
+    // ===================== IDEMPOTENCY TESTS =====================
+    @Test
+    void shouldReplayReport_whenIdempotencyKeyWasUsed_returns200() throws Exception {
+        // arrange
+        when(idempotencyService.execute(eq("ingest"), eq("carga-1"), eq(IngestFormat.CSV), eq(IngestReportDto.class), any()))
+                .thenReturn(new IdempotencyService.Result<>(createTestReport(), true));
+
+        // act & assert
+        mockMvc.perform(post("/admin/movies/ingest")
+                        .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "carga-1")
+                        .contentType("text/csv")
+                        .content("The Matrix,136,SCI_FI,1999-03-31,4.8\n"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.rowsInserted", equalTo(1)));
+
+        verifyNoInteractions(movieIngestService);
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder content = new StringBuilder();
+        char[] buffer = new char[256];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            content.append(buffer, 0, read);
+        }
+        return content.toString();
+    }
+}
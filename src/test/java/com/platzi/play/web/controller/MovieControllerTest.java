@@ -1,24 +1,62 @@
 package com.platzi.play.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.MovieField;
+import com.platzi.play.domain.SuggestionJobStatus;
+import com.platzi.play.domain.SuggestionMode;
+import com.platzi.play.domain.dto.MovieChangeDto;
+import com.platzi.play.domain.dto.MovieChangesDto;
+import com.platzi.play.domain.dto.GenreStatsDto;
 import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.dto.MoviePlaysDto;
+import com.platzi.play.domain.dto.MovieStatsDto;
+import com.platzi.play.domain.dto.SuggestionJobDto;
 import com.platzi.play.domain.dto.UpdateMovieDto;
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.domain.exception.IdempotencyKeyReusedException;
+import com.platzi.play.domain.exception.InvalidSyncTokenException;
 import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.exception.SuggestionJobNotFoundException;
+import com.platzi.play.domain.exception.SuggestionQueueFullException;
+import com.platzi.play.domain.service.IdempotencyService;
+import com.platzi.play.domain.service.MoviePlayService;
+import com.platzi.play.domain.service.MovieRankingService;
+import com.platzi.play.domain.service.MovieRatingService;
 import com.platzi.play.domain.service.MovieService;
-import com.platzi.play.domain.service.PlatziPlayAiService;
+import com.platzi.play.domain.service.MovieSimilarityService;
+import com.platzi.play.domain.service.MovieSuggestionJobService;
+import com.platzi.play.domain.service.MovieSuggestionService;
+import com.platzi.play.domain.service.MovieStatsService;
+import com.platzi.play.web.cache.CatalogResponseCache;
+import com.platzi.play.web.config.BinaryFormatsConfig;
+import com.platzi.play.web.ratelimit.RateLimitInterceptor;
+import com.platzi.play.web.ratelimit.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -26,21 +64,55 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(controllers = MovieController.class)
+@WebMvcTest(controllers = MovieController.class, properties = "platzi-play.rate-limit.api-keys=suggest-burst,another-client")
+@Import({CatalogResponseCache.class, BinaryFormatsConfig.class})
 class MovieControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
     @MockitoBean
     private MovieService movieService;
 
     @MockitoBean
-    private PlatziPlayAiService aiService;
+    private MovieSuggestionService movieSuggestionService;
+
+    @MockitoBean
+    private MovieStatsService movieStatsService;
+
+    @MockitoBean
+    private MovieRankingService movieRankingService;
+
+    @MockitoBean
+    private MovieRatingService movieRatingService;
+
+    @MockitoBean
+    private MoviePlayService moviePlayService;
+
+    @MockitoBean
+    private MovieSimilarityService movieSimilarityService;
+
+    @MockitoBean
+    private MovieSuggestionJobService movieSuggestionJobService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        // El cache del catalogo sobrevive entre tests, cada test parte de un catalogo sin serializar
+        catalogResponseCache.invalidate();
+    }
+
     // Test fixtures
     private MovieDto createTestMovieDto() {
         return new MovieDto(
@@ -99,6 +171,482 @@ class MovieControllerTest {
         verify(movieService, times(1)).getAll();
     }
 
+    @Test
+    void shouldServeCachedCatalog_whenRequestedTwice() throws Exception {
+        // arrange
+        when(movieService.getAll()).thenReturn(List.of(createTestMovieDto()));
+
+        // act
+        mockMvc.perform(get("/movies")).andExpect(status().isOk());
+        mockMvc.perform(get("/movies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", equalTo("The Matrix")));
+
+        // assert
+        verify(movieService, times(1)).getAll();
+    }
+
+    @Test
+    void shouldReturnGzipCatalog_whenClientAcceptsGzip() throws Exception {
+        // arrange
+        when(movieService.getAll()).thenReturn(List.of(createTestMovieDto()));
+
+        // act
+        byte[] body = mockMvc.perform(get("/movies")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // assert
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(json, containsString("\"title\":\"The Matrix\""));
+        }
+    }
+
+    @Test
+    void shouldReturnPlainCatalog_whenGzipIsRejectedExplicitly() throws Exception {
+        // arrange
+        when(movieService.getAll()).thenReturn(List.of(createTestMovieDto()));
+
+        // act & assert
+        mockMvc.perform(get("/movies")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[0].title", equalTo("The Matrix")));
+    }
+
+    @Test
+    void shouldRebuildCatalog_whenMovieChanges() throws Exception {
+        // arrange
+        when(movieService.getAll())
+                .thenReturn(List.of(createTestMovieDto()))
+                .thenReturn(List.of(createTestMovieDto(), createTestMovieDtoWithTitle("Inception")));
+        mockMvc.perform(get("/movies")).andExpect(jsonPath("$", hasSize(1)));
+
+        // act
+        catalogResponseCache.onMovieChanged(new MovieChangedEvent(2L, MovieChangedEvent.Operation.CREATED));
+
+        // assert
+        mockMvc.perform(get("/movies")).andExpect(jsonPath("$", hasSize(2)));
+        verify(movieService, times(2)).getAll();
+    }
+
+    // ===================== SPARSE FIELDS TESTS =====================
+    @Test
+    void shouldReturnOnlyRequestedFields_whenFieldsParamIsPresent() throws Exception {
+        // arrange
+        Map<String, Object> movie = new LinkedHashMap<>();
+        movie.put("title", "The Matrix");
+        movie.put("rating", 4.8);
+        when(movieService.getAll(EnumSet.of(MovieField.TITLE, MovieField.RATING))).thenReturn(List.of(movie));
+
+        // act & assert
+        mockMvc.perform(get("/movies").param("fields", "rating, title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", equalTo("The Matrix")))
+                .andExpect(jsonPath("$[0].rating", closeTo(4.8, 0.01)))
+                .andExpect(jsonPath("$[0].genre").doesNotExist());
+
+        verify(movieService, never()).getAll();
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenFieldIsUnknown_returns400() throws Exception {
+        // act & assert
+        mockMvc.perform(get("/movies").param("fields", "title,budget"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type", equalTo("movie-field-unknown")));
+
+        verifyNoInteractions(movieService);
+    }
+
+    // ===================== CHANGES TESTS =====================
+    @Test
+    void shouldReturnChanges_whenTokenIsMissing_returns200() throws Exception {
+        // arrange
+        MovieChangesDto changes = new MovieChangesDto(List.of(
+                new MovieChangeDto(1L, MovieChangedEvent.Operation.CREATED, Instant.parse("2026-01-01T00:00:00Z"), createTestMovieDto()),
+                new MovieChangeDto(2L, MovieChangedEvent.Operation.DELETED, Instant.parse("2026-01-02T00:00:00Z"), null)
+        ), "next-token", false);
+        when(movieService.getChangesSince(null, 500)).thenReturn(changes);
+
+        // act & assert
+        mockMvc.perform(get("/movies/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].operation", equalTo("CREATED")))
+                .andExpect(jsonPath("$.changes[0].movie.title", equalTo("The Matrix")))
+                .andExpect(jsonPath("$.changes[1].operation", equalTo("DELETED")))
+                .andExpect(jsonPath("$.nextToken", equalTo("next-token")))
+                .andExpect(jsonPath("$.hasMore", equalTo(false)));
+    }
+
+    @Test
+    void shouldBoundLimit_whenLimitIsTooLarge() throws Exception {
+        // arrange
+        when(movieService.getChangesSince("abc", 1000)).thenReturn(new MovieChangesDto(List.of(), "abc", false));
+
+        // act & assert
+        mockMvc.perform(get("/movies/changes").param("since", "abc").param("limit", "50000"))
+                .andExpect(status().isOk());
+
+        verify(movieService, times(1)).getChangesSince("abc", 1000);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenTokenIsInvalid_returns400() throws Exception {
+        // arrange
+        when(movieService.getChangesSince("broken", 500)).thenThrow(new InvalidSyncTokenException());
+
+        // act & assert
+        mockMvc.perform(get("/movies/changes").param("since", "broken"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type", equalTo("sync-token-invalid")));
+    }
+
+    // ===================== STATS TESTS =====================
+    @Test
+    void shouldReturnCatalogStats_returns200() throws Exception {
+        // arrange
+        MovieStatsDto stats = new MovieStatsDto(
+                2,
+                Map.of(Genre.SCI_FI, new GenreStatsDto(2, 4.5)),
+                Map.of("120-149", 2L),
+                Map.of(1999, 1L, 2010, 1L)
+        );
+        when(movieStatsService.getStats()).thenReturn(stats);
+
+        // act & assert
+        mockMvc.perform(get("/movies/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", equalTo(2)))
+                .andExpect(jsonPath("$.genres.SCI_FI.count", equalTo(2)))
+                .andExpect(jsonPath("$.genres.SCI_FI.averageRating", equalTo(4.5)))
+                .andExpect(jsonPath("$.durationDistribution['120-149']", equalTo(2)))
+                .andExpect(jsonPath("$.releasesPerYear.1999", equalTo(1)));
+
+        verify(movieService, never()).getAll();
+    }
+
+    // ===================== TOP TESTS =====================
+    @Test
+    void shouldReturnTopMoviesOfGenre_returns200() throws Exception {
+        // arrange
+        when(movieRankingService.getTop(Genre.HORROR, 2)).thenReturn(List.of(
+                createTestMovieDtoWithTitle("It"),
+                createTestMovieDtoWithTitle("Alien")
+        ));
+
+        // act & assert
+        mockMvc.perform(get("/movies/top").param("genre", "HORROR").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", equalTo("It")));
+    }
+
+    @Test
+    void shouldReturnGlobalTopWithBoundedSize_whenGenreIsMissing() throws Exception {
+        // arrange
+        when(movieRankingService.getTop(null, 100)).thenReturn(List.of(createTestMovieDto()));
+
+        // act & assert
+        mockMvc.perform(get("/movies/top").param("n", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(movieRankingService, times(1)).getTop(null, 100);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenGenreIsUnknown() throws Exception {
+        // act & assert
+        mockMvc.perform(get("/movies/top").param("genre", "WESTERN"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(movieRankingService);
+    }
+
+    // ===================== RATINGS TESTS =====================
+    @Test
+    void shouldAcceptRating_whenScoreIsValid_returns202() throws Exception {
+        // act & assert
+        mockMvc.perform(post("/movies/{id}/ratings", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"score\": 4}"))
+                .andExpect(status().isAccepted());
+
+        verify(movieRatingService, times(1)).rate(1L, 4);
+    }
+
+    @Test
+    void shouldRejectRating_whenScoreIsOutOfRange_returns400() throws Exception {
+        // act & assert
+        mockMvc.perform(post("/movies/{id}/ratings", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"score\": 9}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(movieRatingService);
+    }
+
+    @Test
+    void shouldReturnNotFound_whenRatedMovieDoesNotExist_returns404() throws Exception {
+        // arrange
+        doThrow(MovieNotFound.INSTANCE).when(movieRatingService).rate(999L, 3);
+
+        // act & assert
+        mockMvc.perform(post("/movies/{id}/ratings", 999L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"score\": 3}"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ===================== PLAYS TESTS =====================
+    @Test
+    void shouldRegisterPlay_returns202() throws Exception {
+        // act & assert
+        mockMvc.perform(post("/movies/{id}/plays", 3L))
+                .andExpect(status().isAccepted());
+
+        verify(moviePlayService, times(1)).play(3L);
+    }
+
+    @Test
+    void shouldReturnMostPlayedMovies_returns200() throws Exception {
+        // arrange
+        when(moviePlayService.getMostPlayed(2)).thenReturn(List.of(
+                new MoviePlaysDto(3L, "The Matrix", 1500L),
+                new MoviePlaysDto(1L, "Inception", 900L)
+        ));
+
+        // act & assert
+        mockMvc.perform(get("/movies/most-played").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", equalTo("The Matrix")))
+                .andExpect(jsonPath("$[0].plays", equalTo(1500)));
+    }
+
+    // ===================== SIMILAR TESTS =====================
+    @Test
+    void shouldReturnSimilarMovies_returns200() throws Exception {
+        // arrange
+        when(movieSimilarityService.getSimilar(1L, 5)).thenReturn(List.of(createTestMovieDtoWithTitle("Dark City")));
+
+        // act & assert
+        mockMvc.perform(get("/movies/{id}/similar", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", equalTo("Dark City")));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenReferenceMovieDoesNotExist_returns404() throws Exception {
+        // arrange
+        when(movieSimilarityService.getSimilar(999L, 3)).thenThrow(MovieNotFound.INSTANCE);
+
+        // act & assert
+        mockMvc.perform(get("/movies/{id}/similar", 999L).param("k", "3"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ===================== SUGGEST TESTS =====================
+    @Test
+    void shouldReturnSuggestion_usingConfiguredMode_returns200() throws Exception {
+        // arrange
+        when(movieSuggestionService.suggest("me gusta el terror", null)).thenReturn("1. It");
+
+        // act & assert
+        mockMvc.perform(post("/movies/suggest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"me gusta el terror\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1. It"));
+    }
+
+    @Test
+    void shouldPassRequestedMode_whenModeIsSent() throws Exception {
+        // arrange
+        when(movieSuggestionService.suggest("comedia", SuggestionMode.LOCAL)).thenReturn("1. Shrek");
+
+        // act & assert
+        mockMvc.perform(post("/movies/suggest").param("mode", "LOCAL")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"comedia\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1. Shrek"));
+
+        verify(movieSuggestionService, times(1)).suggest("comedia", SuggestionMode.LOCAL);
+    }
+
+    @Test
+    void shouldReturnTooManyRequests_whenClientExceedsSuggestLimit_returns429() throws Exception {
+        // arrange
+        when(movieSuggestionService.suggest("drama", null)).thenReturn("1. Titanic");
+        int capacity = rateLimitProperties.routes().stream()
+                .filter(route -> route.path().equals("/movies/suggest") && route.method().equals("POST"))
+                .findFirst().orElseThrow().capacity();
+        for (int i = 0; i < capacity; i++) {
+            mockMvc.perform(post("/movies/suggest").header(RateLimitInterceptor.API_KEY_HEADER, "suggest-burst")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"userPreferences\": \"drama\"}"))
+                    .andExpect(status().isOk());
+        }
+
+        // act & assert
+        mockMvc.perform(post("/movies/suggest").header(RateLimitInterceptor.API_KEY_HEADER, "suggest-burst")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"drama\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.type", equalTo("rate-limit-exceeded")));
+
+        // Otro cliente conserva su propio cubo
+        mockMvc.perform(post("/movies/suggest").header(RateLimitInterceptor.API_KEY_HEADER, "another-client")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"drama\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldCountByIp_whenApiKeyIsNotConfigured_returns429() throws Exception {
+        // arrange
+        when(movieSuggestionService.suggest("drama", null)).thenReturn("1. Titanic");
+        int capacity = rateLimitProperties.routes().stream()
+                .filter(route -> route.path().equals("/movies/suggest") && route.method().equals("POST"))
+                .findFirst().orElseThrow().capacity();
+        for (int i = 0; i < capacity; i++) {
+            mockMvc.perform(post("/movies/suggest").header(RateLimitInterceptor.API_KEY_HEADER, "random-" + i)
+                            .with(request -> { request.setRemoteAddr("10.0.0.7"); return request; })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"userPreferences\": \"drama\"}"))
+                    .andExpect(status().isOk());
+        }
+
+        // act & assert: inventar otra clave no da un cubo nuevo
+        mockMvc.perform(post("/movies/suggest").header(RateLimitInterceptor.API_KEY_HEADER, "random-" + capacity)
+                        .with(request -> { request.setRemoteAddr("10.0.0.7"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"drama\"}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    // ===================== SUGGESTION JOB TESTS =====================
+    @Test
+    void shouldAcceptSuggestionJob_returns202WithLocation() throws Exception {
+        // arrange
+        SuggestionJobDto job = new SuggestionJobDto("job-1", SuggestionJobStatus.PENDING, 8, null, null, Instant.parse("2025-01-01T00:00:00Z"), null);
+        when(movieSuggestionJobService.submit("terror", null, 8)).thenReturn(job);
+
+        // act & assert
+        mockMvc.perform(post("/movies/suggest/jobs").param("priority", "8")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"terror\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, endsWith("/movies/suggest/jobs/job-1")))
+                .andExpect(jsonPath("$.id", equalTo("job-1")))
+                .andExpect(jsonPath("$.status", equalTo("PENDING")));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailable_whenSuggestionQueueIsFull() throws Exception {
+        // arrange
+        when(movieSuggestionJobService.submit("terror", null, 5)).thenThrow(new SuggestionQueueFullException());
+
+        // act & assert
+        mockMvc.perform(post("/movies/suggest/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userPreferences\": \"terror\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.type", equalTo("suggestion-queue-full")));
+    }
+
+    @Test
+    void shouldReturnSuggestionJobResult_returns200() throws Exception {
+        // arrange
+        SuggestionJobDto job = new SuggestionJobDto("job-1", SuggestionJobStatus.DONE, 5, "1. It", null,
+                Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-01-01T00:00:02Z"));
+        when(movieSuggestionJobService.get("job-1")).thenReturn(job);
+
+        // act & assert
+        mockMvc.perform(get("/movies/suggest/jobs/{id}", "job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", equalTo("DONE")))
+                .andExpect(jsonPath("$.result", equalTo("1. It")));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenSuggestionJobIsUnknown_returns404() throws Exception {
+        // arrange
+        when(movieSuggestionJobService.get("missing")).thenThrow(new SuggestionJobNotFoundException());
+
+        // act & assert
+        mockMvc.perform(get("/movies/suggest/jobs/{id}", "missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.type", equalTo("suggestion-job-not-found")));
+    }
+
+    // ===================== BINARY FORMAT TESTS =====================
+    @Test
+    void shouldReturnCborCatalog_whenClientPrefersCbor() throws Exception {
+        // arrange
+        List<MovieDto> movies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            movies.add(createTestMovieDtoWithTitle("Movie " + i));
+        }
+        when(movieService.getAll()).thenReturn(movies);
+        CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+        // act
+        byte[] cbor = mockMvc.perform(get("/movies")
+                        .header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = objectMapper.writeValueAsBytes(movies);
+
+        // assert
+        MovieDto[] decoded = cborMapper.readValue(cbor, MovieDto[].class);
+        assertThat(decoded.length, equalTo(20));
+        assertThat(decoded[3].title(), equalTo("Movie 3"));
+        assertThat(cbor.length, lessThan(json.length));
+    }
+
+    @Test
+    void shouldReturnSmileMovie_whenClientAcceptsSmile() throws Exception {
+        // arrange
+        when(movieService.getById(1L)).thenReturn(createTestMovieDto());
+
+        // act & assert
+        mockMvc.perform(get("/movies/{id}", 1L)
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE));
+    }
+
+    @Test
+    void shouldCreateMovie_whenBodyIsCbor_returns201() throws Exception {
+        // arrange
+        MovieDto inputDto = createTestMovieDto();
+        when(movieService.add(any(MovieDto.class))).thenReturn(inputDto);
+        CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+        // act & assert
+        mockMvc.perform(post("/movies")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(cborMapper.writeValueAsBytes(inputDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title", equalTo("The Matrix")));
+
+        verify(movieService, times(1)).add(eq(inputDto));
+    }
+
     // ===================== GET BY ID TESTS =====================
     @Test
     void shouldReturnMovie_whenMovieExists_returns200() throws Exception {
@@ -269,6 +817,56 @@ class MovieControllerTest {
         verify(movieService, times(1)).add(any(MovieDto.class));
     }
 
+    // ===================== IDEMPOTENCY TESTS =====================
+    @Test
+    void shouldReplayOriginalResponse_whenIdempotencyKeyWasUsed_returns201() throws Exception {
+        // arrange
+        MovieDto inputDto = createTestMovieDto();
+        when(idempotencyService.execute(eq("movies"), eq("retry-1"), eq(inputDto), eq(MovieDto.class), any()))
+                .thenReturn(new IdempotencyService.Result<>(inputDto, true));
+
+        // act & assert
+        mockMvc.perform(post("/movies").header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputDto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.title", equalTo("The Matrix")));
+
+        verify(movieService, never()).add(any());
+    }
+
+    @Test
+    void shouldReturnUnprocessableEntity_whenIdempotencyKeyIsReusedWithOtherMovie_returns422() throws Exception {
+        // arrange
+        MovieDto inputDto = createTestMovieDto();
+        when(idempotencyService.execute(eq("movies"), eq("retry-1"), eq(inputDto), eq(MovieDto.class), any()))
+                .thenThrow(new IdempotencyKeyReusedException());
+
+        // act & assert
+        mockMvc.perform(post("/movies").header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputDto)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.type", equalTo("idempotency-key-reused")));
+    }
+
+    @Test
+    void shouldNotUseIdempotencyStore_whenHeaderIsMissing() throws Exception {
+        // arrange
+        MovieDto inputDto = createTestMovieDto();
+        when(movieService.add(any(MovieDto.class))).thenReturn(inputDto);
+
+        // act & assert
+        mockMvc.perform(post("/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputDto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+
+        verifyNoInteractions(idempotencyService);
+    }
+
     // ===================== PUT UPDATE TESTS =====================
     @Test
     void shouldUpdateMovie_whenValidData_returns200() throws Exception {
@@ -0,0 +1,105 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.event.MovieChangedEvent;
+import com.platzi.play.web.stream.MovieChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MovieStreamController.class)
+@Import(MovieChangeFeed.class)
+class MovieStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieChangeFeed movieChangeFeed;
+
+    // ===================== STREAM TESTS =====================
+    @Test
+    void shouldDeliverChange_whenMovieIsSavedAfterSubscribing() throws Exception {
+        // arrange
+        MvcResult result = mockMvc.perform(get("/movies/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // act
+        movieChangeFeed.onMovieChanged(new MovieChangedEvent(5L, MovieChangedEvent.Operation.CREATED, 10L, false));
+
+        // assert
+        String body = awaitContaining(result, "event:movie-change");
+        assertThat(body, containsString("\"id\":5"));
+        assertThat(body, containsString("\"operation\":\"CREATED\""));
+        assertThat(result.getResponse().getContentType(), startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    void shouldReplayMissedChanges_whenLastEventIdIsSent() throws Exception {
+        // arrange
+        movieChangeFeed.onMovieChanged(new MovieChangedEvent(1L, MovieChangedEvent.Operation.CREATED, 1L, false));
+        MvcResult first = mockMvc.perform(get("/movies/stream")).andReturn();
+        String lastEventId = lastEventId(awaitContaining(first, "\"id\":1"));
+        movieChangeFeed.onMovieChanged(new MovieChangedEvent(2L, MovieChangedEvent.Operation.UPDATED, 2L, false));
+
+        // act
+        MvcResult resumed = mockMvc.perform(get("/movies/stream").header("Last-Event-ID", lastEventId)).andReturn();
+
+        // assert
+        String body = awaitContaining(resumed, "\"id\":2");
+        assertThat(body, not(containsString("\"id\":1,")));
+    }
+
+    @Test
+    void shouldAskForResync_whenLastEventIdIsUnknown() throws Exception {
+        // act
+        MvcResult result = mockMvc.perform(get("/movies/stream").header("Last-Event-ID", "999999")).andReturn();
+
+        // assert
+        assertThat(awaitContaining(result, "event:resync"), containsString("event:resync"));
+    }
+
+    @Test
+    void shouldAskForResync_whenLastEventIdComesFromAnotherNode() throws Exception {
+        // arrange: misma secuencia que un evento real pero de otra epoca (otro nodo o un reinicio)
+        movieChangeFeed.onMovieChanged(new MovieChangedEvent(3L, MovieChangedEvent.Operation.CREATED, 3L, false));
+        MvcResult first = mockMvc.perform(get("/movies/stream")).andReturn();
+        String lastEventId = lastEventId(awaitContaining(first, "\"id\":3"));
+        String sequence = lastEventId.substring(lastEventId.indexOf(':') + 1);
+
+        // act
+        MvcResult result = mockMvc.perform(get("/movies/stream").header("Last-Event-ID", "otronodo:" + sequence)).andReturn();
+
+        // assert
+        assertThat(awaitContaining(result, "event:resync"), containsString("event:resync"));
+    }
+
+    private static String awaitContaining(MvcResult result, String expected) throws Exception {
+        // Los envios se hacen en un hilo virtual, se espera un poco a que lleguen a la respuesta
+        long deadline = System.currentTimeMillis() + 2_000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        assertThat(body, containsString(expected));
+        return body;
+    }
+
+    private static String lastEventId(String body) {
+        String id = null;
+        for (String line : body.split("\n")) {
+            if (line.startsWith("id:")) id = line.substring(3).trim();
+        }
+        return id;
+    }
+}
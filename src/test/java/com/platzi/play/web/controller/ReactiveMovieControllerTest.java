@@ -0,0 +1,106 @@
+package com.platzi.play.web.controller;
+
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.service.ReactiveMovieService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveMovieController.class)
+@ActiveProfiles("reactive")
+class ReactiveMovieControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveMovieService reactiveMovieService;
+
+    // Test fixtures
+    private MovieDto createTestMovieDtoWithTitle(String title) {
+        return new MovieDto(
+                title,
+                120,
+                Genre.SCI_FI,
+                LocalDate.of(1999, 3, 31),
+                4.8,
+                "D"
+        );
+    }
+
+    // ===================== GET ALL TESTS =====================
+    @Test
+    void shouldReturnAllMoviesAsJsonArray_returns200() throws Exception {
+        // arrange
+        when(reactiveMovieService.getAll()).thenReturn(Flux.just(
+                createTestMovieDtoWithTitle("The Matrix"),
+                createTestMovieDtoWithTitle("Inception")
+        ));
+
+        // act
+        MvcResult result = mockMvc.perform(get("/reactive/movies").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].title", equalTo("Inception")));
+    }
+
+    @Test
+    void shouldStreamMoviesAsNdjson_whenClientAcceptsNdjson() throws Exception {
+        // arrange
+        when(reactiveMovieService.getAll()).thenReturn(Flux.just(
+                createTestMovieDtoWithTitle("The Matrix"),
+                createTestMovieDtoWithTitle("Inception")
+        ));
+
+        // act
+        MvcResult result = mockMvc.perform(get("/reactive/movies").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        // assert
+        String body = result.getResponse().getContentAsString();
+        assertThat(body.lines().count(), equalTo(2L));
+        assertThat(body, containsString("\"title\":\"Inception\""));
+    }
+
+    // ===================== GET BY ID TESTS =====================
+    @Test
+    void shouldReturnNotFound_whenMovieNotExists_returns404() throws Exception {
+        // arrange
+        when(reactiveMovieService.getById(999L)).thenReturn(Mono.error(MovieNotFound.INSTANCE));
+
+        // act
+        MvcResult result = mockMvc.perform(get("/reactive/movies/{id}", 999L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.type", equalTo("movie-not-found")));
+    }
+}
@@ -0,0 +1,173 @@
+package com.platzi.play.web.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final String ROUTE = "POST /movies/suggest";
+    private static final String OTHER_ROUTE = "GET /hello";
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private TokenBucketTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new TokenBucketTable(now::get, TimeUnit.MINUTES.toNanos(10), 3);
+    }
+
+    // ===================== ACQUIRE TESTS =====================
+    @Test
+    void shouldAllowBurstUpToCapacity_thenReject() {
+        // act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, table.tryAcquire(ROUTE, "a", 5, MINUTE));
+        }
+        long wait = table.tryAcquire(ROUTE, "a", 5, MINUTE);
+
+        // assert
+        assertEquals(MINUTE / 5, wait);
+    }
+
+    @Test
+    void shouldRefillOneToken_afterInterval() {
+        // arrange
+        for (int i = 0; i < 5; i++) {
+            table.tryAcquire(ROUTE, "a", 5, MINUTE);
+        }
+
+        // act
+        now.addAndGet(MINUTE / 5);
+
+        // assert
+        assertEquals(0, table.tryAcquire(ROUTE, "a", 5, MINUTE));
+        assertTrue(table.tryAcquire(ROUTE, "a", 5, MINUTE) > 0);
+    }
+
+    @Test
+    void shouldKeepSeparateBuckets_perKey() {
+        // arrange
+        table.tryAcquire(ROUTE, "a", 1, MINUTE);
+
+        // act & assert
+        assertTrue(table.tryAcquire(ROUTE, "a", 1, MINUTE) > 0);
+        assertEquals(0, table.tryAcquire(ROUTE, "b", 1, MINUTE));
+    }
+
+    // ===================== EVICTION TESTS =====================
+    @Test
+    void shouldEvictIdleBuckets() {
+        // arrange
+        table.tryAcquire(ROUTE, "a", 5, MINUTE);
+        table.tryAcquire(ROUTE, "b", 5, MINUTE);
+
+        // act
+        now.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        table.evictIdle();
+
+        // assert
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void shouldEvictFullBuckets_whenTableIsFull_withoutForgettingThrottledClients() {
+        // arrange
+        table.tryAcquire(ROUTE, "throttled", 1, MINUTE);
+        table.tryAcquire(ROUTE, "b", 5, MINUTE);
+        table.tryAcquire(ROUTE, "c", 5, MINUTE);
+        now.addAndGet(MINUTE / 2);
+
+        // act
+        table.tryAcquire(ROUTE, "d", 5, MINUTE);
+
+        // assert
+        assertEquals(2, table.size());
+        assertTrue(table.tryAcquire(ROUTE, "throttled", 1, MINUTE) > 0);
+    }
+
+    @Test
+    void shouldKeepSeparateBuckets_perRoute() {
+        // arrange
+        table.tryAcquire(ROUTE, "a", 1, MINUTE);
+
+        // act & assert
+        assertTrue(table.tryAcquire(ROUTE, "a", 1, MINUTE) > 0);
+        assertEquals(0, table.tryAcquire(OTHER_ROUTE, "a", 1, MINUTE));
+    }
+
+    @Test
+    void shouldShareOverflowBucket_whenTableIsFullOfThrottledClients() {
+        // arrange
+        table.tryAcquire(ROUTE, "a", 1, MINUTE);
+        table.tryAcquire(ROUTE, "b", 1, MINUTE);
+        table.tryAcquire(ROUTE, "c", 1, MINUTE);
+
+        // act
+        long first = table.tryAcquire(ROUTE, "d", 1, MINUTE);
+        long second = table.tryAcquire(ROUTE, "e", 1, MINUTE);
+
+        // assert: la tabla no crece y las claves nuevas comparten un solo cubo
+        assertEquals(0, first);
+        assertTrue(second > 0);
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void shouldAdmitNewClient_afterIdleBucketsAreEvicted() {
+        // arrange
+        table.tryAcquire(ROUTE, "a", 1, MINUTE);
+        table.tryAcquire(ROUTE, "b", 1, MINUTE);
+        table.tryAcquire(ROUTE, "c", 1, MINUTE);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        table.evictIdle();
+
+        // act & assert
+        assertEquals(0, table.tryAcquire(ROUTE, "d", 1, MINUTE));
+        assertTrue(table.tryAcquire(ROUTE, "d", 1, MINUTE) > 0);
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void shouldKeepOneOverflowBucket_perRoute() {
+        // arrange
+        table.tryAcquire(ROUTE, "a", 1, MINUTE);
+        table.tryAcquire(ROUTE, "b", 1, MINUTE);
+        table.tryAcquire(ROUTE, "c", 1, MINUTE);
+        table.tryAcquire(ROUTE, "d", 1, MINUTE);
+
+        // act: el desborde de una ruta agotado no debe frenar a los clientes nuevos de otra
+        long sameRoute = table.tryAcquire(ROUTE, "e", 1, MINUTE);
+        long otherRoute = table.tryAcquire(OTHER_ROUTE, "e", 1, MINUTE);
+
+        // assert
+        assertTrue(sameRoute > 0);
+        assertEquals(0, otherRoute);
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void shouldScanForFullBuckets_atMostOncePerEvictionTick() {
+        // arrange: la tabla se llena de clientes frenados y el primer cliente nuevo gasta la busqueda
+        table.tryAcquire(ROUTE, "a", 1, MINUTE);
+        table.tryAcquire(ROUTE, "b", 1, MINUTE);
+        table.tryAcquire(ROUTE, "c", 1, MINUTE);
+        table.tryAcquire(ROUTE, "d", 1, MINUTE);
+        now.addAndGet(MINUTE);
+
+        // act: los cubos ya estan llenos, pero hasta la proxima limpieza no se vuelve a recorrer la tabla
+        table.tryAcquire(ROUTE, "e", 1, MINUTE);
+        int sizeBeforeTick = table.size();
+        table.evictIdle();
+        table.tryAcquire(ROUTE, "f", 1, MINUTE);
+
+        // assert
+        assertEquals(3, sizeBeforeTick);
+        assertEquals(1, table.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.platzi.play.web.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.platzi.play.domain.Genre;
+import com.platzi.play.domain.dto.MovieDto;
+import com.platzi.play.domain.exception.MovieNotFound;
+import com.platzi.play.domain.index.IndexedMovie;
+import com.platzi.play.domain.index.MovieCatalogIndex;
+import com.platzi.play.domain.service.MovieService;
+import com.platzi.play.web.cache.CatalogResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JitWarmUpTest {
+
+    @Mock
+    private MovieService movieService;
+
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+
+    @Mock
+    private CatalogResponseCache catalogResponseCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicLong now = new AtomicLong();
+
+    private MovieDto movie;
+
+    @BeforeEach
+    void setUp() {
+        movie = new MovieDto("The Matrix", 120, Genre.SCI_FI, LocalDate.of(1999, 3, 31), 4.8, "D");
+    }
+
+    private JitWarmUp warmUp(int iterations, int databaseIterations, Duration maxDuration) {
+        return new JitWarmUp(movieService, movieCatalogIndex, catalogResponseCache, objectMapper, eventPublisher,
+                new WarmUpProperties(true, iterations, databaseIterations, maxDuration, 4), now::get);
+    }
+
+    // ===================== WARM UP TESTS =====================
+    @Test
+    void shouldRunConfiguredIterations_andPrimeCatalogResponse() {
+        // arrange
+        IndexedMovie indexed = new IndexedMovie(7L, movie);
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.getAll()).thenReturn(List.of(indexed));
+        when(movieCatalogIndex.get(7L)).thenReturn(Optional.of(indexed));
+        when(movieService.getAll()).thenReturn(List.of(movie));
+        when(movieService.getById(7L)).thenReturn(movie);
+
+        // act
+        int iterations = warmUp(50, 5, Duration.ofMinutes(1)).warmUp();
+
+        // assert: solo las primeras vueltas van a la base, el resto sale del indice
+        assertEquals(50, iterations);
+        verify(movieService, times(5)).getAll();
+        verify(movieService, times(5)).getById(7L);
+        verify(movieCatalogIndex, times(45)).get(7L);
+        verify(catalogResponseCache).get();
+    }
+
+    @Test
+    void shouldStop_whenMaxDurationElapses() {
+        // arrange: cada lectura del catalogo avanza el reloj un segundo
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+        when(movieService.getAll()).thenAnswer(invocation -> {
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+            return List.of(movie);
+        });
+        when(movieService.getById(anyLong())).thenThrow(MovieNotFound.INSTANCE);
+
+        // act
+        int iterations = warmUp(1_000, 1_000, Duration.ofSeconds(3)).warmUp();
+
+        // assert
+        assertEquals(3, iterations);
+        verify(movieService).getById(1L);
+        verify(movieService).getById(3L);
+    }
+
+    @Test
+    void shouldStopQuietly_whenDatabaseIsUnavailable() {
+        // arrange
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+        when(movieService.getAll()).thenThrow(new DataAccessResourceFailureException("sin conexion"));
+
+        // act
+        int iterations = warmUp(100, 20, Duration.ofMinutes(1)).warmUp();
+
+        // assert
+        assertEquals(0, iterations);
+        verify(catalogResponseCache, never()).get();
+    }
+
+    // ===================== READINESS TESTS =====================
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRefuseTraffic_untilWarmUpFinishes() {
+        // arrange
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+        when(movieService.getAll()).thenReturn(List.of(movie));
+        when(movieService.getById(anyLong())).thenReturn(movie);
+        ArgumentCaptor<AvailabilityChangeEvent<ReadinessState>> events = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+
+        // act
+        warmUp(10, 2, Duration.ofMinutes(1)).onApplicationReady();
+
+        // assert
+        InOrder inOrder = inOrder(eventPublisher, movieService);
+        inOrder.verify(eventPublisher).publishEvent(events.capture());
+        inOrder.verify(movieService, times(2)).getAll();
+        inOrder.verify(eventPublisher).publishEvent(events.capture());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, events.getAllValues().get(0).getState());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, events.getAllValues().get(1).getState());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAcceptTraffic_evenWhenWarmUpFails() {
+        // arrange
+        when(movieCatalogIndex.isReady()).thenReturn(false);
+        when(movieService.getAll()).thenThrow(new DataAccessResourceFailureException("sin conexion"));
+        ArgumentCaptor<AvailabilityChangeEvent<ReadinessState>> events = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+
+        // act
+        warmUp(10, 2, Duration.ofMinutes(1)).onApplicationReady();
+
+        // assert
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, events.getAllValues().get(1).getState());
+    }
+}